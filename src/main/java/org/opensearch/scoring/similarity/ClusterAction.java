@@ -0,0 +1,24 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Clusters the records of an index into entities from the linked pairs and writes the cluster id to each record.
+ */
+public class ClusterAction extends ActionType<ClusterResponse> {
+
+    public static final ClusterAction INSTANCE = new ClusterAction();
+    public static final String NAME = "indices:data/write/record_linkage/cluster";
+
+    private ClusterAction() {
+        super(NAME, ClusterResponse::new);
+    }
+
+}
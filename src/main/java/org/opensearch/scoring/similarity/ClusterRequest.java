@@ -0,0 +1,173 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskId;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+/**
+ * The request for the {@link ClusterAction}. The pairs are read from an index with a document per linked pair,
+ * holding the ids of the two records and the score the pair was linked with.
+ */
+public class ClusterRequest extends ActionRequest {
+
+    private String index;
+    private String pairsIndex;
+    private String leftField = "left_id";
+    private String rightField = "right_id";
+    private String scoreField = "score";
+    private double minScore = 0.0;
+    private String clusterField = "cluster_id";
+    private int batchSize = 1000;
+    private boolean shouldStoreResult = false;
+
+    public ClusterRequest(String index) {
+        this.index = index;
+    }
+
+    public ClusterRequest(StreamInput in) throws IOException {
+        super(in);
+        this.index = in.readString();
+        this.pairsIndex = in.readOptionalString();
+        this.leftField = in.readString();
+        this.rightField = in.readString();
+        this.scoreField = in.readString();
+        this.minScore = in.readDouble();
+        this.clusterField = in.readString();
+        this.batchSize = in.readVInt();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(index);
+        out.writeOptionalString(pairsIndex);
+        out.writeString(leftField);
+        out.writeString(rightField);
+        out.writeString(scoreField);
+        out.writeDouble(minScore);
+        out.writeString(clusterField);
+        out.writeVInt(batchSize);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (index == null || index.isEmpty()) {
+            validationException = addValidationError("index is missing", validationException);
+        }
+        if (pairsIndex == null || pairsIndex.isEmpty()) {
+            validationException = addValidationError("pairs_index is missing", validationException);
+        }
+        if (batchSize <= 0) {
+            validationException = addValidationError("batch_size must be greater than 0", validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new ClusterTask(id, type, action, getDescription(), parentTaskId, headers);
+    }
+
+    @Override
+    public String getDescription() {
+        return "cluster [" + index + "] from the pairs in [" + pairsIndex + "]";
+    }
+
+    /**
+     * The result is stored in the tasks index when the request does not wait for it to complete.
+     */
+    @Override
+    public boolean getShouldStoreResult() {
+        return shouldStoreResult;
+    }
+
+    public ClusterRequest setShouldStoreResult(boolean shouldStoreResult) {
+        this.shouldStoreResult = shouldStoreResult;
+        return this;
+    }
+
+    public String index() {
+        return index;
+    }
+
+    public String pairsIndex() {
+        return pairsIndex;
+    }
+
+    public ClusterRequest pairsIndex(String pairsIndex) {
+        this.pairsIndex = pairsIndex;
+        return this;
+    }
+
+    public String leftField() {
+        return leftField;
+    }
+
+    public ClusterRequest leftField(String leftField) {
+        this.leftField = leftField;
+        return this;
+    }
+
+    public String rightField() {
+        return rightField;
+    }
+
+    public ClusterRequest rightField(String rightField) {
+        this.rightField = rightField;
+        return this;
+    }
+
+    public String scoreField() {
+        return scoreField;
+    }
+
+    public ClusterRequest scoreField(String scoreField) {
+        this.scoreField = scoreField;
+        return this;
+    }
+
+    public double minScore() {
+        return minScore;
+    }
+
+    public ClusterRequest minScore(double minScore) {
+        this.minScore = minScore;
+        return this;
+    }
+
+    public String clusterField() {
+        return clusterField;
+    }
+
+    public ClusterRequest clusterField(String clusterField) {
+        this.clusterField = clusterField;
+        return this;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public ClusterRequest batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+}
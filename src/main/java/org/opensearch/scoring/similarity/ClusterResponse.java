@@ -0,0 +1,67 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.action.ActionResponse;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * The number of records, pairs and clusters found and how many records were updated with their cluster id.
+ */
+public class ClusterResponse extends ActionResponse implements ToXContentObject {
+
+    private final long records;
+    private final long pairs;
+    private final long clusters;
+    private final long updated;
+    private final long failed;
+
+    public ClusterResponse(long records, long pairs, long clusters, long updated, long failed) {
+        this.records = records;
+        this.pairs = pairs;
+        this.clusters = clusters;
+        this.updated = updated;
+        this.failed = failed;
+    }
+
+    public ClusterResponse(StreamInput in) throws IOException {
+        super(in);
+        this.records = in.readVLong();
+        this.pairs = in.readVLong();
+        this.clusters = in.readVLong();
+        this.updated = in.readVLong();
+        this.failed = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(records);
+        out.writeVLong(pairs);
+        out.writeVLong(clusters);
+        out.writeVLong(updated);
+        out.writeVLong(failed);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field("records", records);
+        builder.field("pairs", pairs);
+        builder.field("clusters", clusters);
+        builder.field("updated", updated);
+        builder.field("failed", failed);
+        builder.endObject();
+        return builder;
+    }
+
+}
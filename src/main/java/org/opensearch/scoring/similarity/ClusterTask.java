@@ -0,0 +1,140 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.tasks.CancellableTask;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.tasks.TaskId;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The task of a cluster request. It can be cancelled with the task management API, which is checked between each
+ * batch of hits or updates, and its status shows which phase the clustering is in and how far it has got.
+ */
+public class ClusterTask extends CancellableTask {
+
+    private volatile String phase = "records";
+    private volatile long records;
+    private volatile long pairs;
+    private volatile long updated;
+
+    public ClusterTask(long id, String type, String action, String description, TaskId parentTaskId,
+            Map<String, String> headers) {
+        super(id, type, action, description, parentTaskId, headers);
+    }
+
+    @Override
+    public boolean shouldCancelChildrenOnCancellation() {
+        return true;
+    }
+
+    /**
+     * @throws TaskCancelledException if the task has been cancelled.
+     */
+    void ensureNotCancelled() {
+        if (isCancelled()) {
+            throw new TaskCancelledException("The cluster request was cancelled: " + getReasonCancelled());
+        }
+    }
+
+    void phase(String phase) {
+        this.phase = phase;
+    }
+
+    void records(long records) {
+        this.records = records;
+    }
+
+    void pairs(long pairs) {
+        this.pairs = pairs;
+    }
+
+    void updated(long updated) {
+        this.updated = updated;
+    }
+
+    @Override
+    public Task.Status getStatus() {
+        return new Status(phase, records, pairs, updated);
+    }
+
+    /**
+     * The phase of the clustering, reading the records, merging the pairs or writing the clusters, and the number of
+     * records, pairs and updates done so far.
+     */
+    public static class Status implements Task.Status {
+
+        public static final String NAME = "record_linkage_cluster";
+
+        private final String phase;
+        private final long records;
+        private final long pairs;
+        private final long updated;
+
+        public Status(String phase, long records, long pairs, long updated) {
+            this.phase = phase;
+            this.records = records;
+            this.pairs = pairs;
+            this.updated = updated;
+        }
+
+        public Status(StreamInput in) throws IOException {
+            this.phase = in.readString();
+            this.records = in.readVLong();
+            this.pairs = in.readVLong();
+            this.updated = in.readVLong();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(phase);
+            out.writeVLong(records);
+            out.writeVLong(pairs);
+            out.writeVLong(updated);
+        }
+
+        @Override
+        public String getWriteableName() {
+            return NAME;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("phase", phase);
+            builder.field("records", records);
+            builder.field("pairs", pairs);
+            builder.field("updated", updated);
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            Status other = (Status) obj;
+            return phase.equals(other.phase) && records == other.records && pairs == other.pairs && updated == other.updated;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(phase, records, pairs, updated);
+        }
+
+    }
+
+}
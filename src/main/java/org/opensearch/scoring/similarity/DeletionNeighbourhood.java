@@ -0,0 +1,64 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Generates the deletion neighbourhood of a value: every string that can be made by deleting up to k characters
+ * from it. Two values within a Levenshtein distance of k always share at least one variant in their deletion
+ * neighbourhoods, so indexing the variants lets the candidates for the edit distance matchers be found with exact
+ * term lookups. The candidates still need to be verified by the matcher in {@link MatcherService}.
+ */
+public final class DeletionNeighbourhood {
+
+    /**
+     * The largest number of deletions allowed. The number of variants grows with the length of the value to the
+     * power of k so anything higher would produce too many terms for a name.
+     */
+    public static final int MAX_DELETIONS = 3;
+
+    private DeletionNeighbourhood() {
+    }
+
+    /**
+     * Generate the deletion variants of the value, starting with the value itself. Empty variants are left out
+     * since they would match every short value in the index.
+     *
+     * @param value        the value to generate the variants of.
+     * @param maxDeletions the largest number of characters to delete.
+     *
+     * @return the variants in the order they were generated, without duplicates.
+     */
+    public static Set<String> variants(String value, int maxDeletions) {
+        if (maxDeletions < 0 || maxDeletions > MAX_DELETIONS) {
+            throw new IllegalArgumentException("The number of deletions must be between 0 and " + MAX_DELETIONS
+                    + ". Value is " + maxDeletions);
+        }
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(value);
+        Set<String> previous = Collections.singleton(value);
+        for (int deletions = 0; deletions < maxDeletions; deletions++) {
+            Set<String> next = new LinkedHashSet<>();
+            for (String variant : previous) {
+                for (int i = 0; i < variant.length(); i += Character.charCount(variant.codePointAt(i))) {
+                    int end = i + Character.charCount(variant.codePointAt(i));
+                    String deleted = variant.substring(0, i) + variant.substring(end);
+                    if (deleted.isEmpty() == false && variants.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            previous = next;
+        }
+        return variants;
+    }
+
+}
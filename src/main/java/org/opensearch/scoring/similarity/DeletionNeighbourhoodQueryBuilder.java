@@ -0,0 +1,174 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.common.ParseField;
+import org.opensearch.common.ParsingException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.index.mapper.MappedFieldType;
+import org.opensearch.index.query.AbstractQueryBuilder;
+import org.opensearch.index.query.QueryShardContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Finds the candidates for the edit distance matchers by looking up the deletion variants of the value in a field
+ * indexed with the deletion_neighbourhood token filter. Every document within max_deletions edits of the value is
+ * returned with a constant score, so it can be used as the query of a function_score with the string_similarity
+ * script instead of match_all. See {@link DeletionNeighbourhood}.
+ * <pre>
+ * "deletion_neighbourhood": {
+ *   "name.deletions": { "value": "John Doe", "max_deletions": 2 }
+ * }
+ * </pre>
+ */
+public class DeletionNeighbourhoodQueryBuilder extends AbstractQueryBuilder<DeletionNeighbourhoodQueryBuilder> {
+
+    public static final String NAME = "deletion_neighbourhood";
+
+    public static final int DEFAULT_MAX_DELETIONS = 1;
+
+    private static final ParseField VALUE_FIELD = new ParseField("value");
+    private static final ParseField MAX_DELETIONS_FIELD = new ParseField("max_deletions");
+
+    private final String fieldName;
+    private final String value;
+    private final int maxDeletions;
+
+    public DeletionNeighbourhoodQueryBuilder(String fieldName, String value, int maxDeletions) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new IllegalArgumentException("[" + NAME + "] requires a field name");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("[" + NAME + "] requires a value");
+        }
+        if (maxDeletions < 0 || maxDeletions > DeletionNeighbourhood.MAX_DELETIONS) {
+            throw new IllegalArgumentException("[" + NAME + "] max_deletions must be between 0 and "
+                    + DeletionNeighbourhood.MAX_DELETIONS + ". Value is " + maxDeletions);
+        }
+        this.fieldName = fieldName;
+        this.value = value;
+        this.maxDeletions = maxDeletions;
+    }
+
+    public DeletionNeighbourhoodQueryBuilder(StreamInput in) throws IOException {
+        super(in);
+        this.fieldName = in.readString();
+        this.value = in.readString();
+        this.maxDeletions = in.readVInt();
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeString(fieldName);
+        out.writeString(value);
+        out.writeVInt(maxDeletions);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(NAME);
+        builder.startObject(fieldName);
+        builder.field(VALUE_FIELD.getPreferredName(), value);
+        builder.field(MAX_DELETIONS_FIELD.getPreferredName(), maxDeletions);
+        printBoostAndQueryName(builder);
+        builder.endObject();
+        builder.endObject();
+    }
+
+    public static DeletionNeighbourhoodQueryBuilder fromXContent(XContentParser parser) throws IOException {
+        String fieldName = null;
+        String value = null;
+        int maxDeletions = DEFAULT_MAX_DELETIONS;
+        float boost = AbstractQueryBuilder.DEFAULT_BOOST;
+        String queryName = null;
+        String currentFieldName = null;
+        XContentParser.Token token;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if (token == XContentParser.Token.START_OBJECT) {
+                throwParsingExceptionOnMultipleFields(NAME, parser.getTokenLocation(), fieldName, currentFieldName);
+                fieldName = currentFieldName;
+                while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                    if (token == XContentParser.Token.FIELD_NAME) {
+                        currentFieldName = parser.currentName();
+                    } else if (token.isValue()) {
+                        if (VALUE_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
+                            value = parser.text();
+                        } else if (MAX_DELETIONS_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
+                            maxDeletions = parser.intValue();
+                        } else if (AbstractQueryBuilder.BOOST_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
+                            boost = parser.floatValue();
+                        } else if (AbstractQueryBuilder.NAME_FIELD.match(currentFieldName, parser.getDeprecationHandler())) {
+                            queryName = parser.text();
+                        } else {
+                            throw new ParsingException(parser.getTokenLocation(),
+                                    "[" + NAME + "] query does not support [" + currentFieldName + "]");
+                        }
+                    } else {
+                        throw new ParsingException(parser.getTokenLocation(),
+                                "[" + NAME + "] unexpected token [" + token + "] after [" + currentFieldName + "]");
+                    }
+                }
+            } else {
+                throw new ParsingException(parser.getTokenLocation(),
+                        "[" + NAME + "] query expects an object with the field name as its key");
+            }
+        }
+        return new DeletionNeighbourhoodQueryBuilder(fieldName, value, maxDeletions).boost(boost).queryName(queryName);
+    }
+
+    /**
+     * The value is normalized the same way as {@link MatcherService} does before matching, so the field should be
+     * analyzed with a keyword tokenizer and lowercase filter ahead of the deletion_neighbourhood filter.
+     */
+    @Override
+    protected Query doToQuery(QueryShardContext context) throws IOException {
+        MappedFieldType fieldType = context.fieldMapper(fieldName);
+        if (fieldType == null) {
+            return new MatchNoDocsQuery("unmapped field [" + fieldName + "]");
+        }
+        String normalized = value.trim().toLowerCase(Locale.getDefault());
+        List<BytesRef> terms = new ArrayList<>();
+        for (String variant : DeletionNeighbourhood.variants(normalized, maxDeletions)) {
+            terms.add(new BytesRef(variant));
+        }
+        return new ConstantScoreQuery(new TermInSetQuery(fieldType.name(), terms));
+    }
+
+    @Override
+    protected boolean doEquals(DeletionNeighbourhoodQueryBuilder other) {
+        return Objects.equals(fieldName, other.fieldName)
+            && Objects.equals(value, other.value)
+            && maxDeletions == other.maxDeletions;
+    }
+
+    @Override
+    protected int doHashCode() {
+        return Objects.hash(fieldName, value, maxDeletions);
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+}
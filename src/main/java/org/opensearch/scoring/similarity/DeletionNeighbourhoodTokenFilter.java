@@ -0,0 +1,60 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Emits each token followed by its deletion variants at the same position. See {@link DeletionNeighbourhood}.
+ */
+public final class DeletionNeighbourhoodTokenFilter extends TokenFilter {
+
+    private final CharTermAttribute termAttribute = addAttribute(CharTermAttribute.class);
+    private final PositionIncrementAttribute positionAttribute = addAttribute(PositionIncrementAttribute.class);
+    private final int maxDeletions;
+
+    private Iterator<String> pending;
+    private State state;
+
+    public DeletionNeighbourhoodTokenFilter(TokenStream input, int maxDeletions) {
+        super(input);
+        this.maxDeletions = maxDeletions;
+    }
+
+    @Override
+    public boolean incrementToken() throws IOException {
+        if (pending != null && pending.hasNext()) {
+            restoreState(state);
+            termAttribute.setEmpty().append(pending.next());
+            positionAttribute.setPositionIncrement(0);
+            return true;
+        }
+        if (input.incrementToken() == false) {
+            return false;
+        }
+        pending = DeletionNeighbourhood.variants(termAttribute.toString(), maxDeletions).iterator();
+        // The first variant is the token itself which is returned as is.
+        pending.next();
+        state = captureState();
+        return true;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        pending = null;
+        state = null;
+    }
+
+}
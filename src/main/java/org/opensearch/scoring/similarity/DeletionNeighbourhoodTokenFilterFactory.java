@@ -0,0 +1,41 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.env.Environment;
+import org.opensearch.index.IndexSettings;
+import org.opensearch.index.analysis.AbstractTokenFilterFactory;
+
+/**
+ * Creates the deletion_neighbourhood token filter. The max_deletions setting should be the same as the
+ * max_deletions of the {@link DeletionNeighbourhoodQueryBuilder} used to search the field.
+ */
+public class DeletionNeighbourhoodTokenFilterFactory extends AbstractTokenFilterFactory {
+
+    public static final String NAME = "deletion_neighbourhood";
+
+    private final int maxDeletions;
+
+    public DeletionNeighbourhoodTokenFilterFactory(IndexSettings indexSettings, Environment environment, String name,
+            Settings settings) {
+        super(indexSettings, name, settings);
+        this.maxDeletions = settings.getAsInt("max_deletions", DeletionNeighbourhoodQueryBuilder.DEFAULT_MAX_DELETIONS);
+        if (maxDeletions < 0 || maxDeletions > DeletionNeighbourhood.MAX_DELETIONS) {
+            throw new IllegalArgumentException("[max_deletions] for the [" + NAME + "] token filter must be between 0 and "
+                    + DeletionNeighbourhood.MAX_DELETIONS + ". Value is " + maxDeletions);
+        }
+    }
+
+    @Override
+    public TokenStream create(TokenStream tokenStream) {
+        return new DeletionNeighbourhoodTokenFilter(tokenStream, maxDeletions);
+    }
+
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Estimates the Fellegi-Sunter m and u values for the matchers from a sample of the candidate pairs in an index.
+ */
+public class EstimateAction extends ActionType<EstimateResponse> {
+
+    public static final EstimateAction INSTANCE = new EstimateAction();
+    public static final String NAME = "indices:data/read/record_linkage/estimate";
+
+    private EstimateAction() {
+        super(NAME, EstimateResponse::new);
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.index.query.QueryBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+/**
+ * The request for the {@link EstimateAction}. The matchers have the same field, matcher and threshold properties
+ * as the fellegi-sunter matchers of the string_similarity script.
+ */
+public class EstimateRequest extends ActionRequest {
+
+    /**
+     * The default index.max_result_window, the most hits a single search can return.
+     */
+    static final int MAX_SAMPLE_SIZE = 10000;
+
+    /**
+     * The most records of the blocks to fetch, sample_size times block_size, since they are all held on the heap of
+     * the coordinating node while the pairs are compared.
+     */
+    static final int MAX_BLOCK_RECORDS = 100000;
+
+    private String[] indices;
+    private QueryBuilder query;
+    private String blockField;
+    private List<Map<String, Object>> matchers = new ArrayList<>();
+    private Integer sampleSize;
+    private int blockSize = 100;
+    private int maxPairs = 1000000;
+    private int maxIterations = 100;
+    private double tolerance = 0.0001;
+    private double initialM = 0.9;
+    private double initialU = 0.1;
+    private double proportion = 0.1;
+
+    public EstimateRequest(String... indices) {
+        this.indices = indices;
+    }
+
+    public EstimateRequest(StreamInput in) throws IOException {
+        super(in);
+        this.indices = in.readStringArray();
+        this.query = in.readOptionalNamedWriteable(QueryBuilder.class);
+        this.blockField = in.readOptionalString();
+        int size = in.readVInt();
+        for (int i = 0; i < size; i++) {
+            matchers.add(in.readMap());
+        }
+        this.sampleSize = in.readOptionalVInt();
+        this.blockSize = in.readVInt();
+        this.maxPairs = in.readVInt();
+        this.maxIterations = in.readVInt();
+        this.tolerance = in.readDouble();
+        this.initialM = in.readDouble();
+        this.initialU = in.readDouble();
+        this.proportion = in.readDouble();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeStringArray(indices);
+        out.writeOptionalNamedWriteable(query);
+        out.writeOptionalString(blockField);
+        out.writeVInt(matchers.size());
+        for (Map<String, Object> matcher : matchers) {
+            out.writeMap(matcher);
+        }
+        out.writeOptionalVInt(sampleSize);
+        out.writeVInt(blockSize);
+        out.writeVInt(maxPairs);
+        out.writeVInt(maxIterations);
+        out.writeDouble(tolerance);
+        out.writeDouble(initialM);
+        out.writeDouble(initialU);
+        out.writeDouble(proportion);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (indices == null || indices.length == 0) {
+            validationException = addValidationError("index is missing", validationException);
+        }
+        if (matchers.isEmpty()) {
+            validationException = addValidationError("matchers are missing", validationException);
+        }
+        for (Map<String, Object> matcher : matchers) {
+            if (matcher.containsKey("field") == false || matcher.containsKey("matcher") == false
+                    || matcher.containsKey("threshold") == false) {
+                validationException = addValidationError("each matcher needs a [field], [matcher] and [threshold]",
+                        validationException);
+                break;
+            }
+        }
+        if (sampleSize() <= 1 || sampleSize() > MAX_SAMPLE_SIZE) {
+            validationException = addValidationError("sample_size must be greater than 1 and at most " + MAX_SAMPLE_SIZE,
+                    validationException);
+        }
+        if (blockSize <= 1 || blockSize > MAX_SAMPLE_SIZE) {
+            validationException = addValidationError("block_size must be greater than 1 and at most " + MAX_SAMPLE_SIZE,
+                    validationException);
+        } else if (blockField != null && (long) sampleSize() * blockSize > MAX_BLOCK_RECORDS) {
+            validationException = addValidationError("sample_size * block_size must be at most " + MAX_BLOCK_RECORDS
+                    + " with a block_field", validationException);
+        }
+        if (maxPairs <= 0) {
+            validationException = addValidationError("max_pairs must be greater than 0", validationException);
+        }
+        if (maxIterations <= 0) {
+            validationException = addValidationError("max_iterations must be greater than 0", validationException);
+        }
+        if (initialM <= 0 || initialM >= 1 || initialU <= 0 || initialU >= 1 || proportion <= 0 || proportion >= 1) {
+            validationException = addValidationError("initial_m, initial_u and proportion must be between 0 and 1",
+                    validationException);
+        }
+        return validationException;
+    }
+
+    public String[] indices() {
+        return indices;
+    }
+
+    public QueryBuilder query() {
+        return query;
+    }
+
+    public EstimateRequest query(QueryBuilder query) {
+        this.query = query;
+        return this;
+    }
+
+    public String blockField() {
+        return blockField;
+    }
+
+    public EstimateRequest blockField(String blockField) {
+        this.blockField = blockField;
+        return this;
+    }
+
+    public List<Map<String, Object>> matchers() {
+        return matchers;
+    }
+
+    public EstimateRequest matchers(List<Map<String, Object>> matchers) {
+        this.matchers = matchers;
+        return this;
+    }
+
+    /**
+     * @return the sample size, by default {@link #MAX_SAMPLE_SIZE}, or as many blocks as fit in
+     * {@link #MAX_BLOCK_RECORDS} with a block_field.
+     */
+    public int sampleSize() {
+        if (sampleSize != null) {
+            return sampleSize;
+        }
+        if (blockField == null) {
+            return MAX_SAMPLE_SIZE;
+        }
+        return Math.min(MAX_SAMPLE_SIZE, MAX_BLOCK_RECORDS / Math.max(blockSize, 1));
+    }
+
+    public EstimateRequest sampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+        return this;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public EstimateRequest blockSize(int blockSize) {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    public int maxPairs() {
+        return maxPairs;
+    }
+
+    public EstimateRequest maxPairs(int maxPairs) {
+        this.maxPairs = maxPairs;
+        return this;
+    }
+
+    public int maxIterations() {
+        return maxIterations;
+    }
+
+    public EstimateRequest maxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    public double tolerance() {
+        return tolerance;
+    }
+
+    public EstimateRequest tolerance(double tolerance) {
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    public double initialM() {
+        return initialM;
+    }
+
+    public EstimateRequest initialM(double initialM) {
+        this.initialM = initialM;
+        return this;
+    }
+
+    public double initialU() {
+        return initialU;
+    }
+
+    public EstimateRequest initialU(double initialU) {
+        this.initialU = initialU;
+        return this;
+    }
+
+    public double proportion() {
+        return proportion;
+    }
+
+    public EstimateRequest proportion(double proportion) {
+        this.proportion = proportion;
+        return this;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.action.ActionResponse;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * The estimated m and u values, returned as matchers which can be used in the params of a fellegi-sunter script.
+ */
+public class EstimateResponse extends ActionResponse implements ToXContentObject {
+
+    private final String[] fields;
+    private final String[] matcherNames;
+    private final double[] thresholds;
+    private final double[] m;
+    private final double[] u;
+    private final double proportion;
+    private final int iterations;
+    private final boolean converged;
+    private final long pairs;
+    private final int patterns;
+
+    public EstimateResponse(String[] fields, String[] matcherNames, double[] thresholds, double[] m, double[] u,
+            double proportion, int iterations, boolean converged, long pairs, int patterns) {
+        this.fields = fields;
+        this.matcherNames = matcherNames;
+        this.thresholds = thresholds;
+        this.m = m;
+        this.u = u;
+        this.proportion = proportion;
+        this.iterations = iterations;
+        this.converged = converged;
+        this.pairs = pairs;
+        this.patterns = patterns;
+    }
+
+    public EstimateResponse(StreamInput in) throws IOException {
+        super(in);
+        this.fields = in.readStringArray();
+        this.matcherNames = in.readStringArray();
+        this.thresholds = in.readDoubleArray();
+        this.m = in.readDoubleArray();
+        this.u = in.readDoubleArray();
+        this.proportion = in.readDouble();
+        this.iterations = in.readVInt();
+        this.converged = in.readBoolean();
+        this.pairs = in.readVLong();
+        this.patterns = in.readVInt();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeStringArray(fields);
+        out.writeStringArray(matcherNames);
+        out.writeDoubleArray(thresholds);
+        out.writeDoubleArray(m);
+        out.writeDoubleArray(u);
+        out.writeDouble(proportion);
+        out.writeVInt(iterations);
+        out.writeBoolean(converged);
+        out.writeVLong(pairs);
+        out.writeVInt(patterns);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field("pairs", pairs);
+        builder.field("patterns", patterns);
+        builder.field("iterations", iterations);
+        builder.field("converged", converged);
+        builder.field("proportion", proportion);
+        builder.startArray("matchers");
+        for (int i = 0; i < fields.length; i++) {
+            builder.startObject();
+            builder.field("field", fields[i]);
+            builder.field("matcher", matcherNames[i]);
+            builder.field("threshold", thresholds[i]);
+            builder.field("m_value", m[i]);
+            builder.field("u_value", u[i]);
+            builder.endObject();
+        }
+        builder.endArray();
+        builder.endObject();
+        return builder;
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Estimates the Fellegi-Sunter m and u values of each matcher with expectation-maximization. Each candidate pair is
+ * reduced to an agreement pattern, a bit per matcher which is set if the pair agrees on the field and a second bit
+ * per matcher which is set if either record has no value for the field. A missing field is neither an agreement
+ * nor a disagreement, so it is left out of the estimate of that field's m and u values. The pairs are
+ * then compacted into a table of how often each pattern occurs so each iteration only has to visit the distinct
+ * patterns instead of every pair. Building the table and the E and M steps are split into ranges which run on the
+ * executor. The calling thread waits for them, so it must not be a thread of the executor.
+ */
+public class FellegiSunterEstimator {
+
+    /**
+     * The smallest number of pairs or patterns worth handing to another thread.
+     */
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    /**
+     * The m and u values are kept away from 0 and 1 so the weights computed from them stay finite.
+     */
+    private static final double MIN_PROBABILITY = 1e-6;
+
+    private final List<String> matcherNames;
+    private final double[] thresholds;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final MatcherService matcherService = new MatcherService();
+
+    /**
+     * @param matcherNames the name of the matcher for each field.
+     * @param thresholds   the threshold for each field to count as agreeing, the same as for fellegi-sunter scoring.
+     * @param executor     the executor to run the ranges on.
+     * @param parallelism  the most ranges to split the work into, usually the number of threads of the executor.
+     */
+    public FellegiSunterEstimator(List<String> matcherNames, double[] thresholds, ExecutorService executor,
+            int parallelism) {
+        if (matcherNames.size() > Integer.SIZE - 1) {
+            throw new IllegalArgumentException("At most " + (Integer.SIZE - 1) + " matchers can be estimated at once");
+        }
+        for (String matcherName : matcherNames) {
+            if (MatcherService.isTyped(matcherName)) {
+                throw new IllegalArgumentException("The matcher [" + matcherName + "] can not be estimated from the source");
+            }
+        }
+        this.matcherNames = matcherNames;
+        this.thresholds = thresholds;
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Build the agreement pattern table for the candidate pairs.
+     *
+     * @param records the value of each field for each record.
+     * @param pairs   the indices in records of the two records of each candidate pair.
+     *
+     * @return the distinct patterns and how often they occur.
+     */
+    public PatternTable patterns(String[][] records, int[][] pairs) {
+        List<Callable<Map<Long, Long>>> tasks = new ArrayList<>();
+        int ranges = ranges(pairs.length);
+        for (int range = 0; range < ranges; range++) {
+            int from = (int) ((long) range * pairs.length / ranges);
+            int to = (int) ((long) (range + 1) * pairs.length / ranges);
+            tasks.add(() -> countPatterns(records, pairs, from, to));
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (Map<Long, Long> rangeCounts : invokeAll(tasks)) {
+            rangeCounts.forEach((code, count) -> counts.merge(code, count, Long::sum));
+        }
+        return new PatternTable(counts);
+    }
+
+    /**
+     * Run expectation-maximization on the pattern table until the m and u values change by less than the tolerance.
+     *
+     * @param table         the agreement pattern table.
+     * @param initialM      the starting m value for every field.
+     * @param initialU      the starting u value for every field.
+     * @param proportion    the starting proportion of the pairs which are matches.
+     * @param maxIterations the largest number of iterations to run.
+     * @param tolerance     the change in the m and u values below which the estimate has converged.
+     *
+     * @return the estimate.
+     */
+    public Estimate estimate(PatternTable table, double initialM, double initialU, double proportion,
+            int maxIterations, double tolerance) {
+        int fields = matcherNames.size();
+        double[] m = new double[fields];
+        double[] u = new double[fields];
+        Arrays.fill(m, initialM);
+        Arrays.fill(u, initialU);
+        double p = proportion;
+        int iteration = 0;
+        boolean converged = false;
+        while (iteration < maxIterations && converged == false && table.total > 0) {
+            iteration++;
+            Sums sums = expectation(table, m, u, p);
+            double change = 0.0;
+            for (int i = 0; i < fields; i++) {
+                if (sums.matchObserved[i] + sums.unmatchObserved[i] == 0) {
+                    // No pair has a value for the field on both sides so there is nothing to estimate it from.
+                    continue;
+                }
+                double nextM = clamp(sums.matchAgree[i] / sums.matchObserved[i]);
+                double nextU = clamp(sums.unmatchAgree[i] / sums.unmatchObserved[i]);
+                change = Math.max(change, Math.max(Math.abs(nextM - m[i]), Math.abs(nextU - u[i])));
+                m[i] = nextM;
+                u[i] = nextU;
+            }
+            p = clamp(sums.match / table.total);
+            converged = change < tolerance;
+        }
+        return new Estimate(m, u, p, iteration, converged);
+    }
+
+    /*
+     * Run the E step on ranges of the pattern table and add up the sums of the ranges for the M step.
+     */
+    private Sums expectation(PatternTable table, double[] m, double[] u, double p) {
+        double[] currentM = m.clone();
+        double[] currentU = u.clone();
+        List<Callable<Sums>> tasks = new ArrayList<>();
+        int ranges = ranges(table.codes.length);
+        for (int range = 0; range < ranges; range++) {
+            int from = range * table.codes.length / ranges;
+            int to = (range + 1) * table.codes.length / ranges;
+            tasks.add(() -> sums(table, currentM, currentU, p, from, to));
+        }
+        Sums sums = new Sums(m.length);
+        for (Sums rangeSums : invokeAll(tasks)) {
+            sums.add(rangeSums);
+        }
+        return sums;
+    }
+
+    private int ranges(int size) {
+        return Math.max(1, Math.min(parallelism, size / SPLIT_THRESHOLD));
+    }
+
+    /*
+     * Run the tasks on the executor, or on the calling thread when there is only one, and wait for all of them.
+     */
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            if (tasks.size() == 1) {
+                results.add(tasks.get(0).call());
+                return results;
+            }
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while estimating the m and u values", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to estimate the m and u values", e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to estimate the m and u values", e);
+        }
+        return results;
+    }
+
+    private static double clamp(double probability) {
+        if (Double.isNaN(probability)) {
+            return MIN_PROBABILITY;
+        }
+        return Math.min(1 - MIN_PROBABILITY, Math.max(MIN_PROBABILITY, probability));
+    }
+
+    /**
+     * The distinct agreement patterns and the number of pairs for each. Bit i of a pattern is set if the pair agrees
+     * on field i and bit i of the upper half is set if the field is missing from either record.
+     */
+    public static class PatternTable {
+
+        private final long[] codes;
+        private final long[] counts;
+        private final long total;
+
+        PatternTable(Map<Long, Long> patternCounts) {
+            this.codes = new long[patternCounts.size()];
+            this.counts = new long[patternCounts.size()];
+            long total = 0;
+            int i = 0;
+            for (Map.Entry<Long, Long> entry : patternCounts.entrySet()) {
+                codes[i] = entry.getKey();
+                counts[i] = entry.getValue();
+                total += entry.getValue();
+                i++;
+            }
+            this.total = total;
+        }
+
+        public int size() {
+            return codes.length;
+        }
+
+        public long total() {
+            return total;
+        }
+
+    }
+
+    /**
+     * The estimated m and u values of each field and the proportion of pairs which are matches.
+     */
+    public static class Estimate {
+
+        public final double[] m;
+        public final double[] u;
+        public final double proportion;
+        public final int iterations;
+        public final boolean converged;
+
+        Estimate(double[] m, double[] u, double proportion, int iterations, boolean converged) {
+            this.m = m;
+            this.u = u;
+            this.proportion = proportion;
+            this.iterations = iterations;
+            this.converged = converged;
+        }
+
+    }
+
+    /*
+     * Computes the agreement pattern of a range of the pairs.
+     */
+    private Map<Long, Long> countPatterns(String[][] records, int[][] pairs, int from, int to) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (int pair = from; pair < to; pair++) {
+            String[] left = records[pairs[pair][0]];
+            String[] right = records[pairs[pair][1]];
+            long code = 0;
+            for (int i = 0; i < matcherNames.size(); i++) {
+                if (left[i].equals("") || right[i].equals("")) {
+                    code |= missingBit(i);
+                    continue;
+                }
+                String matcherName = matcherNames.get(i);
+                double score = matcherService.matchScore(matcherName, left[i], right[i]);
+                if (matcherService.isDistance(matcherName) ? score <= thresholds[i] : score >= thresholds[i]) {
+                    code |= agreeBit(i);
+                }
+            }
+            counts.merge(code, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private static long agreeBit(int field) {
+        return 1L << field;
+    }
+
+    private static long missingBit(int field) {
+        return 1L << (Integer.SIZE + field);
+    }
+
+    /*
+     * The expected number of matching and unmatching pairs in total, for each field having a value on both sides
+     * and for each field agreeing.
+     */
+    private static class Sums {
+
+        private double match;
+        private double unmatch;
+        private final double[] matchObserved;
+        private final double[] unmatchObserved;
+        private final double[] matchAgree;
+        private final double[] unmatchAgree;
+
+        Sums(int fields) {
+            this.matchObserved = new double[fields];
+            this.unmatchObserved = new double[fields];
+            this.matchAgree = new double[fields];
+            this.unmatchAgree = new double[fields];
+        }
+
+        void add(Sums other) {
+            match += other.match;
+            unmatch += other.unmatch;
+            for (int i = 0; i < matchAgree.length; i++) {
+                matchObserved[i] += other.matchObserved[i];
+                unmatchObserved[i] += other.unmatchObserved[i];
+                matchAgree[i] += other.matchAgree[i];
+                unmatchAgree[i] += other.unmatchAgree[i];
+            }
+        }
+
+    }
+
+    /*
+     * Runs the E step, the probability that each pattern is a match, on a range of the pattern table and sums up
+     * what the M step needs.
+     */
+    private static Sums sums(PatternTable table, double[] m, double[] u, double p, int from, int to) {
+        Sums sums = new Sums(m.length);
+        for (int pattern = from; pattern < to; pattern++) {
+            long code = table.codes[pattern];
+            double matchLikelihood = p;
+            double unmatchLikelihood = 1 - p;
+            for (int i = 0; i < m.length; i++) {
+                if ((code & missingBit(i)) != 0) {
+                    continue;
+                }
+                boolean agree = (code & agreeBit(i)) != 0;
+                matchLikelihood *= agree ? m[i] : 1 - m[i];
+                unmatchLikelihood *= agree ? u[i] : 1 - u[i];
+            }
+            double matchProbability = matchLikelihood / (matchLikelihood + unmatchLikelihood);
+            double match = table.counts[pattern] * matchProbability;
+            double unmatch = table.counts[pattern] - match;
+            sums.match += match;
+            sums.unmatch += unmatch;
+            for (int i = 0; i < m.length; i++) {
+                if ((code & missingBit(i)) != 0) {
+                    continue;
+                }
+                sums.matchObserved[i] += match;
+                sums.unmatchObserved[i] += unmatch;
+                if ((code & agreeBit(i)) != 0) {
+                    sums.matchAgree[i] += match;
+                    sums.unmatchAgree[i] += unmatch;
+                }
+            }
+        }
+        return sums;
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.StringHelper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Maps the document ids of the records to dense ordinals and back. The ids, their offsets and an open addressing
+ * hash table from id to ordinal are all kept in {@link MappedFile}s so the map does not grow the heap.
+ */
+final class IdOrdinals implements Closeable {
+
+    private final MappedFile ids;
+    private final MappedFile offsets;
+    private final MappedFile table;
+    private final long size;
+    private final long mask;
+
+    private IdOrdinals(MappedFile ids, MappedFile offsets, MappedFile table, long size, long capacity) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.table = table;
+        this.size = size;
+        this.mask = capacity - 1;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return the ordinal of the id or -1 if it was not added.
+     */
+    long ordinal(String id) {
+        BytesRef bytes = new BytesRef(id);
+        for (long slot = hash(bytes) & mask; ; slot = (slot + 1) & mask) {
+            long entry = table.getLong(slot * Long.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (matches(entry - 1, bytes)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * @return the id of the record with the ordinal.
+     */
+    String id(long ordinal) {
+        long start = offsets.getLong(ordinal * Long.BYTES);
+        int length = (int) (offsets.getLong((ordinal + 1) * Long.BYTES) - start);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = ids.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean matches(long ordinal, BytesRef bytes) {
+        long start = offsets.getLong(ordinal * Long.BYTES);
+        if (offsets.getLong((ordinal + 1) * Long.BYTES) - start != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (ids.get(start + i) != bytes.bytes[bytes.offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(BytesRef bytes) {
+        return StringHelper.murmurhash3_x86_32(bytes, 0) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(ids, offsets, table);
+    }
+
+    /**
+     * Adds the ids in the order of their ordinals. The number of ids must be known up front to size the offsets.
+     */
+    static final class Builder implements Closeable {
+
+        private final Path directory;
+        private final long expected;
+        private final OutputStream idsOutput;
+        private final MappedFile offsets;
+        private long size;
+        private long position;
+        private boolean built;
+
+        Builder(Path directory, long expected) throws IOException {
+            this.directory = directory;
+            this.expected = expected;
+            this.idsOutput = new BufferedOutputStream(Files.newOutputStream(directory.resolve("ids")));
+            this.offsets = MappedFile.create(directory.resolve("offsets"), (expected + 1) * Long.BYTES);
+        }
+
+        /**
+         * @return the ordinal of the id.
+         */
+        long add(String id) throws IOException {
+            if (size == expected) {
+                throw new IllegalStateException("More than the expected " + expected + " records were added");
+            }
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            idsOutput.write(bytes);
+            position += bytes.length;
+            offsets.putLong((size + 1) * Long.BYTES, position);
+            return size++;
+        }
+
+        /**
+         * Finish writing the ids and build the hash table.
+         */
+        IdOrdinals build() throws IOException {
+            idsOutput.close();
+            MappedFile ids = MappedFile.open(directory.resolve("ids"));
+            long capacity = Long.highestOneBit(Math.max(1, size * 2 - 1)) << 1;
+            MappedFile table = MappedFile.create(directory.resolve("table"), capacity * Long.BYTES);
+            IdOrdinals idOrdinals = new IdOrdinals(ids, offsets, table, size, capacity);
+            built = true;
+            for (long ordinal = 0; ordinal < size; ordinal++) {
+                BytesRef bytes = new BytesRef(idOrdinals.id(ordinal));
+                long slot = hash(bytes) & idOrdinals.mask;
+                while (table.getLong(slot * Long.BYTES) != 0) {
+                    slot = (slot + 1) & idOrdinals.mask;
+                }
+                table.putLong(slot * Long.BYTES, ordinal + 1);
+            }
+            return idOrdinals;
+        }
+
+        /**
+         * Closes the files, except the ones handed over to the {@link IdOrdinals} by {@link #build()}.
+         */
+        @Override
+        public void close() throws IOException {
+            IOUtils.close(idsOutput, built ? null : offsets);
+        }
+
+    }
+
+}
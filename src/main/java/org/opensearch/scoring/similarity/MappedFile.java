@@ -0,0 +1,134 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+/**
+ * A file mapped into memory in pages of 1GB so it can be larger than a single {@link MappedByteBuffer}. The
+ * clustering keeps its data for every record in these files so it lives outside of the heap and the operating
+ * system can page it in and out as needed.
+ * <p>
+ * The pages are unmapped when the file is closed, the same way Lucene's MMapDirectory does, instead of waiting for
+ * the garbage collector. Otherwise the memory and the disk space of the already deleted files stay held until some
+ * later collection.
+ */
+final class MappedFile implements Closeable {
+
+    private static final int PAGE_SHIFT = 30;
+    private static final long PAGE_SIZE = 1L << PAGE_SHIFT;
+    private static final long PAGE_MASK = PAGE_SIZE - 1;
+
+    /**
+     * Unsafe.invokeCleaner bound to the Unsafe instance, or null if it is not available in this JVM.
+     */
+    private static final MethodHandle INVOKE_CLEANER = AccessController.doPrivileged(
+            (PrivilegedAction<MethodHandle>) MappedFile::lookupInvokeCleaner);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] pages;
+
+    private MappedFile(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        this.channel = channel;
+        this.pages = new MappedByteBuffer[(int) ((size + PAGE_SIZE - 1) >>> PAGE_SHIFT)];
+        for (int page = 0; page < pages.length; page++) {
+            long start = (long) page << PAGE_SHIFT;
+            pages[page] = channel.map(mode, start, Math.min(PAGE_SIZE, size - start));
+        }
+    }
+
+    /**
+     * Create a new file of the given size, filled with zeros, mapped for reading and writing.
+     */
+    static MappedFile create(Path path, long size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new MappedFile(channel, FileChannel.MapMode.READ_WRITE, size);
+    }
+
+    /**
+     * Map an existing file for reading.
+     */
+    static MappedFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new MappedFile(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+    }
+
+    /**
+     * Get the long at the position, which must be a multiple of 8 so it never crosses a page.
+     */
+    long getLong(long position) {
+        return pages[(int) (position >>> PAGE_SHIFT)].getLong((int) (position & PAGE_MASK));
+    }
+
+    /**
+     * Set the long at the position, which must be a multiple of 8 so it never crosses a page.
+     */
+    void putLong(long position, long value) {
+        pages[(int) (position >>> PAGE_SHIFT)].putLong((int) (position & PAGE_MASK), value);
+    }
+
+    byte get(long position) {
+        return pages[(int) (position >>> PAGE_SHIFT)].get((int) (position & PAGE_MASK));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            unmap();
+        }
+    }
+
+    /*
+     * Any access to a page after it is unmapped crashes the JVM, so the pages are dropped from the array first.
+     */
+    private void unmap() throws IOException {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        for (int page = 0; page < pages.length; page++) {
+            ByteBuffer buffer = pages[page];
+            pages[page] = null;
+            if (buffer != null) {
+                try {
+                    INVOKE_CLEANER.invokeExact(buffer);
+                } catch (Throwable t) {
+                    throw new IOException("Unable to unmap the mapped file", t);
+                }
+            }
+        }
+    }
+
+    private static MethodHandle lookupInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            MethodHandle invokeCleaner = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return invokeCleaner.bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+}
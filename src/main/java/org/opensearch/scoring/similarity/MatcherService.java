@@ -25,6 +25,13 @@ import info.debatty.java.stringsimilarity.interfaces.NormalizedStringDistance;
 import info.debatty.java.stringsimilarity.interfaces.StringDistance;
 import info.debatty.java.stringsimilarity.interfaces.StringSimilarity;
 
+import org.apache.lucene.util.SloppyMath;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -40,18 +47,17 @@ public class MatcherService {
     }
 
     private static class StringComparisonMatcher {
-        private StringDistance distanceMatcher;
-        private StringSimilarity similarityMatcher;
-        private Scorer scorer;
+        private final Scorer scorer;
+        private final boolean similarity;
 
         StringComparisonMatcher( StringSimilarity matcher ) {
-            this.similarityMatcher = matcher;
-            this.scorer = (String left, String right) -> this.similarityMatcher.similarity( left, right );
+            this.scorer = (String left, String right) -> matcher.similarity( left, right );
+            this.similarity = true;
         }
 
         StringComparisonMatcher( StringDistance matcher ) {
-            this.distanceMatcher = matcher;
-            this.scorer = (String left, String right) -> this.distanceMatcher.distance( left, right );
+            this.scorer = (String left, String right) -> matcher.distance( left, right );
+            this.similarity = false;
         }
 
         public double score( String left, String right ) {
@@ -60,9 +66,20 @@ public class MatcherService {
     }
 
     /**
-     * A cache for any matchers that we've already loaded so that we do not need to load them each time.
+     * All the matchers, loaded once. None of them keep any state between matches so they are shared by every thread
+     * scoring documents at the same time.
+     */
+    private static final Map<String, StringComparisonMatcher> MATCHERS = loadMatchers();
+
+    /**
+     * The matcher used to compare single tokens for monge-elkan when no inner_matcher is given.
+     */
+    public static final String DEFAULT_INNER_MATCHER = "jaro-winkler-similarity";
+
+    /**
+     * The matcher used to compare the joined tokens for token-sort-ratio and token-set-ratio.
      */
-    private Map<String, StringComparisonMatcher> matchers = new HashMap<>();
+    private static final String RATIO_MATCHER = "normalized-levenshtein-similarity";
 
     /**
      * Select the right matcher by its name, match the two strings provided and then return the match score. Passing
@@ -75,10 +92,277 @@ public class MatcherService {
      * @return the match score.
      */
     public double matchScore(String matcherName, String left, String right) {
+        if (isTokenSet(matcherName)) {
+            return matchScore(matcherName, DEFAULT_INNER_MATCHER, tokenProbe(left), right, new TokenBuffer());
+        }
         StringComparisonMatcher matcher = getMatcher(matcherName);
         return matcher.score(left.trim().toLowerCase(Locale.getDefault()), right.trim().toLowerCase(Locale.getDefault()));
     }
 
+    /**
+     * Match a value against a probe which has already been split into tokens with one of the token set matchers.
+     * The tokens of the value are kept in the buffer, which also remembers the scores of the inner matcher for
+     * monge-elkan, so each thread scoring documents should have a buffer of its own for each probe.
+     *
+     * <ul>
+     * <li>monge-elkan: the average over the tokens of the probe of the best inner matcher score against any token of
+     * the value.</li>
+     * <li>token-sort-ratio: the normalized levenshtein similarity of the sorted tokens of both.</li>
+     * <li>token-set-ratio: the best normalized levenshtein similarity between the tokens both have in common and the
+     * common tokens plus the remaining tokens of either one, so a value that only adds tokens is still a full
+     * match.</li>
+     * </ul>
+     *
+     * @param matcherName      the name of the token set matcher to use. See {@link #isTokenSet(String)}.
+     * @param innerMatcherName the name of the similarity matcher to compare single tokens with for monge-elkan.
+     * @param probe            the tokens of the value from the query. See {@link #tokenProbe(String)}.
+     * @param value            the value to match against the probe.
+     * @param buffer           the reusable tokens of the value.
+     *
+     * @return the match score, between 0 and 1.
+     */
+    public double matchScore(String matcherName, String innerMatcherName, TokenProbe probe, String value,
+            TokenBuffer buffer) {
+        return matchScore(matcherName, innerMatcherName, probe, value, buffer, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Match a value against a probe with one of the token set matchers when only the side of the thresholds the score
+     * falls on matters. monge-elkan stops as soon as the average of the tokens of the probe is certain to be below
+     * the loosest threshold or at or above the strictest one, and returns the bound of the average that decided it
+     * instead of the average itself. The other matchers always return the full score.
+     *
+     * @param loosest   the lowest threshold, or negative infinity for no early stop below it.
+     * @param strictest the highest threshold, or positive infinity for no early stop at or above it.
+     *
+     * @return the match score, or for monge-elkan a bound of it on the same side of every threshold.
+     */
+    public double matchScore(String matcherName, String innerMatcherName, TokenProbe probe, String value,
+            TokenBuffer buffer, double loosest, double strictest) {
+        int size = buffer.tokenize(value);
+        if (probe.tokens.length == 0 || size == 0) {
+            return 0.0;
+        }
+        switch (matcherName) {
+            case "monge-elkan":
+                return mongeElkan(innerMatcherName, probe, buffer, loosest, strictest);
+            case "token-sort-ratio":
+                Arrays.sort(buffer.tokens, 0, size);
+                return getMatcher(RATIO_MATCHER).score(probe.sorted, buffer.join(buffer.first, buffer.tokens, size));
+            case "token-set-ratio":
+                return tokenSetRatio(probe, buffer);
+            default:
+                throw new IllegalArgumentException("The matcher [" + matcherName + "] is not a token set matcher.");
+        }
+    }
+
+    /**
+     * Split the value from the query into tokens once so they can be matched against every document.
+     *
+     * @param value the value from the query.
+     *
+     * @return the tokens of the value.
+     */
+    public static TokenProbe tokenProbe(String value) {
+        return new TokenProbe(value);
+    }
+
+    /**
+     * Check if the given matcher name is a token set matcher which splits the strings into tokens before matching.
+     *
+     * @param matcherName the name of the matcher to use.
+     *
+     * @return boolean
+     */
+    public static boolean isTokenSet(String matcherName) {
+        switch (matcherName) {
+            case "monge-elkan":
+            case "token-sort-ratio":
+            case "token-set-ratio":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Check that the matcher can be used as the inner matcher of monge-elkan, which needs a similarity between 0 and
+     * 1 for a pair of tokens.
+     *
+     * @param innerMatcherName the name of the inner matcher.
+     */
+    public static void checkInnerMatcher(String innerMatcherName) {
+        StringComparisonMatcher matcher = MATCHERS.get(innerMatcherName);
+        if (matcher == null || matcher.similarity == false) {
+            throw new IllegalArgumentException("The inner matcher [" + innerMatcherName
+                    + "] must be one of the similarity matchers.");
+        }
+    }
+
+    /*
+     * The best score of each probe token is found by trying the tokens of the value in turn. A perfect score can't
+     * be beaten so the search for that probe token stops there. After each probe token the average lies between the
+     * total so far and the total with a perfect score for every remaining token, so once either bound is on one side
+     * of all the thresholds the remaining tokens are not compared.
+     */
+    private double mongeElkan(String innerMatcherName, TokenProbe probe, TokenBuffer buffer, double loosest,
+            double strictest) {
+        StringComparisonMatcher inner = getMatcher(innerMatcherName);
+        buffer.memoFor(innerMatcherName, probe);
+        int count = probe.tokens.length;
+        double total = 0.0;
+        for (int i = 0; i < count; i++) {
+            double best = 0.0;
+            for (int j = 0; j < buffer.size; j++) {
+                double score = buffer.innerScore(inner, probe, i, buffer.tokens[j]);
+                if (score > best) {
+                    best = score;
+                    if (best >= 1.0) {
+                        break;
+                    }
+                }
+            }
+            total += best;
+            if (total / count >= strictest) {
+                return total / count;
+            }
+            double highest = (total + (count - i - 1)) / count;
+            if (highest < loosest) {
+                return highest;
+            }
+        }
+        return total / count;
+    }
+
+    /*
+     * Both token sets are sorted so the common tokens and the rest of each side are found in one pass.
+     */
+    private double tokenSetRatio(TokenProbe probe, TokenBuffer buffer) {
+        int size = buffer.uniqueSorted();
+        String[] tokens = buffer.tokens;
+        StringBuilder common = buffer.first;
+        StringBuilder probeOnly = buffer.second;
+        StringBuilder valueOnly = buffer.third;
+        common.setLength(0);
+        probeOnly.setLength(0);
+        valueOnly.setLength(0);
+        int i = 0;
+        int j = 0;
+        while (i < probe.set.length || j < size) {
+            int compare = i == probe.set.length ? 1 : j == size ? -1 : probe.set[i].compareTo(tokens[j]);
+            if (compare == 0) {
+                append(common, probe.set[i++]);
+                j++;
+            } else if (compare < 0) {
+                append(probeOnly, probe.set[i++]);
+            } else {
+                append(valueOnly, tokens[j++]);
+            }
+        }
+        // Either side only adding tokens to the common ones is already a perfect match.
+        if (common.length() > 0 && (probeOnly.length() == 0 || valueOnly.length() == 0)) {
+            return 1.0;
+        }
+        Scorer ratio = getMatcher(RATIO_MATCHER).scorer;
+        String commonTokens = common.toString();
+        String withProbe = commonTokens.isEmpty() ? probeOnly.toString() : commonTokens + " " + probeOnly;
+        String withValue = commonTokens.isEmpty() ? valueOnly.toString() : commonTokens + " " + valueOnly;
+        double score = ratio.score(withProbe, withValue);
+        if (commonTokens.isEmpty() == false) {
+            score = Math.max(score, Math.max(ratio.score(commonTokens, withProbe), ratio.score(commonTokens, withValue)));
+        }
+        return score;
+    }
+
+    private static void append(StringBuilder builder, String token) {
+        if (builder.length() > 0) {
+            builder.append(' ');
+        }
+        builder.append(token);
+    }
+
+    /**
+     * Match two numeric values with one of the typed matchers and return the match score. Dates are given as epoch
+     * milliseconds. All typed matchers are distance measures so 0 is a perfect match.
+     *
+     * @param matcherName the name of the typed matcher to use. See {@link #isTyped(String)}.
+     * @param left        the first of the two values to match.
+     * @param right       the second of the two values to match.
+     *
+     * @return the match score.
+     */
+    public double matchScore(String matcherName, double left, double right) {
+        switch (matcherName) {
+            case "numeric-abs-diff":
+                return Math.abs(left - right);
+            case "date-within-days":
+                return Math.abs(left - right) / MILLIS_PER_DAY;
+            case "date-transposition":
+                return isSameOrTransposedDate((long) left, (long) right) ? 0.0 : 1.0;
+            default:
+                throw new IllegalArgumentException("The matcher [" + matcherName + "] is not a numeric or date matcher.");
+        }
+    }
+
+    /**
+     * Match two whole numbers or dates with one of the typed matchers and return the match score. The difference is
+     * taken on the longs, so numbers above 2^53 that a double can't tell apart, such as long ids, still differ.
+     *
+     * @param matcherName the name of the typed matcher to use. See {@link #isTyped(String)}.
+     * @param left        the first of the two values to match.
+     * @param right       the second of the two values to match.
+     *
+     * @return the match score.
+     */
+    public double matchScore(String matcherName, long left, long right) {
+        double difference;
+        try {
+            difference = Math.abs((double) Math.subtractExact(left, right));
+        } catch (ArithmeticException e) {
+            difference = Math.abs((double) left - (double) right);
+        }
+        switch (matcherName) {
+            case "numeric-abs-diff":
+                return difference;
+            case "date-within-days":
+                return difference / MILLIS_PER_DAY;
+            case "date-transposition":
+                return isSameOrTransposedDate(left, right) ? 0.0 : 1.0;
+            default:
+                throw new IllegalArgumentException("The matcher [" + matcherName + "] is not a numeric or date matcher.");
+        }
+    }
+
+    /**
+     * Match two geo points and return the distance between them in kilometres.
+     *
+     * @return the haversine distance in kilometres.
+     */
+    public double geoDistanceKm(double leftLat, double leftLon, double rightLat, double rightLon) {
+        return SloppyMath.haversinMeters(leftLat, leftLon, rightLat, rightLon) / 1000.0;
+    }
+
+    /**
+     * Check if the given matcher name is a typed matcher which compares numeric, date or geo_point doc values
+     * instead of strings from the source.
+     *
+     * @param matcherName the name of the matcher to use.
+     *
+     * @return boolean
+     */
+    public static boolean isTyped(String matcherName) {
+        switch (matcherName) {
+            case "numeric-abs-diff":
+            case "date-within-days":
+            case "date-transposition":
+            case "geo-distance-km":
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Check if the given matcher name is a distance measure.
      *
@@ -127,6 +411,9 @@ public class MatcherService {
             case "normalized-levenshtein-similarity":
             case "normalized-lcs-similarity":
             case "ratcliff-obershelp":
+            case "monge-elkan":
+            case "token-sort-ratio":
+            case "token-set-ratio":
                 return true;
             default:
                 return false;
@@ -134,101 +421,207 @@ public class MatcherService {
     }
 
     /*
-     * Get a matcher by its name from the cache. If the matcher is not already in the cache, load it, place it in the
-     * cache and then return it.
+     * Get a matcher by its name.
      */
     private StringComparisonMatcher getMatcher(String matcherName) {
-        if (matchers.containsKey(matcherName)) {
-            return matchers.get(matcherName);
+        StringComparisonMatcher matcher = MATCHERS.get(matcherName);
+        if (matcher == null) {
+            throw new IllegalArgumentException("The matcher [" + matcherName + "] is not supported.");
         }
+        return matcher;
+    }
+
+    private static Map<String, StringComparisonMatcher> loadMatchers() {
+        Map<String, StringComparisonMatcher> matchers = new HashMap<>();
         StringSimilarity simMatcher;
         StringDistance disMatcher;
-        switch (matcherName) {
-            case "cosine-similarity":
-                simMatcher = new Cosine();
-                matchers.put(matcherName, new StringComparisonMatcher(simMatcher));
-                break;
-            case "dice-similarity":
-                simMatcher = new SorensenDice();
-                matchers.put(matcherName, new StringComparisonMatcher(simMatcher));
-                break;
-            case "jaccard-similarity":
-                simMatcher = new Jaccard();
-                matchers.put(matcherName, new StringComparisonMatcher(simMatcher));
-                break;
-            case "jaro-winkler-similarity":
-                simMatcher = new JaroWinkler();
-                matchers.put(matcherName, new StringComparisonMatcher(simMatcher));
-                break;
-            case "normalized-levenshtein-similarity":
-                simMatcher = new NormalizedLevenshtein();
-                matchers.put(matcherName, new StringComparisonMatcher(simMatcher));
-                break;
-            case "normalized-lcs-similarity":
-                simMatcher = new NormalizedLongestCommonSubsequence();
-                matchers.put(matcherName, new StringComparisonMatcher(simMatcher));
-                break;
-            case "ratcliff-obershelp":
-                simMatcher = new RatcliffObershelp();
-                matchers.put(matcherName, new StringComparisonMatcher(simMatcher));
-                break;            
-            case "levenshtein":
-                disMatcher = new Levenshtein();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "normalized-levenshtein-distance":
-                disMatcher = new NormalizedLevenshtein();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "damerau-levenshtein":
-                disMatcher = new Damerau();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "optimal-string-alignment":
-                disMatcher = new OptimalStringAlignment();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "jaro-winkler-distance":
-                disMatcher = new JaroWinkler();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "longest-common-subsequence":
-                disMatcher = new LongestCommonSubsequence();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "normalized-lcs-distance":
-                disMatcher = new NormalizedLongestCommonSubsequence();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "metric-lcs":
-                disMatcher = new MetricLCS();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "ngram":
-                disMatcher = new NGram();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "qgram":
-                disMatcher = new QGram();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "cosine-distance":
-                disMatcher = new Cosine();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "dice-distance":
-                disMatcher = new SorensenDice();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            case "jaccard-distance":
-                disMatcher = new Jaccard();
-                matchers.put(matcherName, new StringComparisonMatcher(disMatcher));
-                break;
-            default:
-                throw new IllegalArgumentException("The matcher [" + matcherName + "] is not supported.");
+
+        simMatcher = new Cosine();
+        matchers.put("cosine-similarity", new StringComparisonMatcher(simMatcher));
+        simMatcher = new SorensenDice();
+        matchers.put("dice-similarity", new StringComparisonMatcher(simMatcher));
+        simMatcher = new Jaccard();
+        matchers.put("jaccard-similarity", new StringComparisonMatcher(simMatcher));
+        simMatcher = new JaroWinkler();
+        matchers.put("jaro-winkler-similarity", new StringComparisonMatcher(simMatcher));
+        simMatcher = new NormalizedLevenshtein();
+        matchers.put("normalized-levenshtein-similarity", new StringComparisonMatcher(simMatcher));
+        simMatcher = new NormalizedLongestCommonSubsequence();
+        matchers.put("normalized-lcs-similarity", new StringComparisonMatcher(simMatcher));
+        simMatcher = new RatcliffObershelp();
+        matchers.put("ratcliff-obershelp", new StringComparisonMatcher(simMatcher));
+
+        disMatcher = new Levenshtein();
+        matchers.put("levenshtein", new StringComparisonMatcher(disMatcher));
+        disMatcher = new NormalizedLevenshtein();
+        matchers.put("normalized-levenshtein-distance", new StringComparisonMatcher(disMatcher));
+        disMatcher = new Damerau();
+        matchers.put("damerau-levenshtein", new StringComparisonMatcher(disMatcher));
+        disMatcher = new OptimalStringAlignment();
+        matchers.put("optimal-string-alignment", new StringComparisonMatcher(disMatcher));
+        disMatcher = new JaroWinkler();
+        matchers.put("jaro-winkler-distance", new StringComparisonMatcher(disMatcher));
+        disMatcher = new LongestCommonSubsequence();
+        matchers.put("longest-common-subsequence", new StringComparisonMatcher(disMatcher));
+        disMatcher = new NormalizedLongestCommonSubsequence();
+        matchers.put("normalized-lcs-distance", new StringComparisonMatcher(disMatcher));
+        disMatcher = new MetricLCS();
+        matchers.put("metric-lcs", new StringComparisonMatcher(disMatcher));
+        disMatcher = new NGram();
+        matchers.put("ngram", new StringComparisonMatcher(disMatcher));
+        disMatcher = new QGram();
+        matchers.put("qgram", new StringComparisonMatcher(disMatcher));
+        disMatcher = new Cosine();
+        matchers.put("cosine-distance", new StringComparisonMatcher(disMatcher));
+        disMatcher = new SorensenDice();
+        matchers.put("dice-distance", new StringComparisonMatcher(disMatcher));
+        disMatcher = new Jaccard();
+        matchers.put("jaccard-distance", new StringComparisonMatcher(disMatcher));
+
+        return Collections.unmodifiableMap(matchers);
+    }
+
+    private static final double MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    /*
+     * Two dates match if they are the same day or if the day and month have been swapped, e.g. 1980-03-07 and
+     * 1980-07-03.
+     */
+    private static boolean isSameOrTransposedDate(long left, long right) {
+        LocalDate leftDate = Instant.ofEpochMilli(left).atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate rightDate = Instant.ofEpochMilli(right).atZone(ZoneOffset.UTC).toLocalDate();
+        if (leftDate.equals(rightDate)) {
+            return true;
+        }
+        return leftDate.getYear() == rightDate.getYear()
+            && leftDate.getDayOfMonth() == rightDate.getMonthValue()
+            && leftDate.getMonthValue() == rightDate.getDayOfMonth();
+    }
+
+    /**
+     * The tokens of a value from the query, split once and shared by every thread matching against it.
+     */
+    public static final class TokenProbe {
+
+        private final String[] tokens;
+        private final String[] set;
+        private final String sorted;
+
+        private TokenProbe(String value) {
+            TokenBuffer buffer = new TokenBuffer();
+            int size = buffer.tokenize(value);
+            this.tokens = Arrays.copyOf(buffer.tokens, size);
+            Arrays.sort(buffer.tokens, 0, size);
+            this.sorted = buffer.join(buffer.first, buffer.tokens, size);
+            this.set = Arrays.copyOf(buffer.tokens, buffer.uniqueSorted());
+        }
+
+    }
+
+    /**
+     * The tokens of the value being matched. It is reused for every document so the token array only grows when a
+     * value has more tokens than any before it. For monge-elkan it also remembers the inner matcher score of each
+     * token against the tokens of the probe, since the same tokens (e.g. street or road) turn up in many
+     * documents. It is not thread safe.
+     */
+    public static final class TokenBuffer {
+
+        /**
+         * The most tokens to remember the inner matcher scores for before starting over.
+         */
+        private static final int MAX_MEMO_SIZE = 1024;
+
+        private String[] tokens = new String[8];
+        private int size;
+        private final StringBuilder first = new StringBuilder();
+        private final StringBuilder second = new StringBuilder();
+        private final StringBuilder third = new StringBuilder();
+        private final Map<String, double[]> memo = new HashMap<>();
+        private String memoMatcher;
+        private TokenProbe memoProbe;
+
+        /*
+         * Split the value into lower case runs of letters and digits.
+         */
+        private int tokenize(String value) {
+            String normalized = value.toLowerCase(Locale.getDefault());
+            size = 0;
+            int start = -1;
+            for (int i = 0; i < normalized.length(); ) {
+                int codePoint = normalized.codePointAt(i);
+                if (Character.isLetterOrDigit(codePoint)) {
+                    if (start < 0) {
+                        start = i;
+                    }
+                } else if (start >= 0) {
+                    add(normalized.substring(start, i));
+                    start = -1;
+                }
+                i += Character.charCount(codePoint);
+            }
+            if (start >= 0) {
+                add(normalized.substring(start));
+            }
+            return size;
+        }
+
+        private void add(String token) {
+            if (size == tokens.length) {
+                tokens = Arrays.copyOf(tokens, size * 2);
+            }
+            tokens[size++] = token;
+        }
+
+        /*
+         * Sort the tokens and drop the duplicates.
+         */
+        private int uniqueSorted() {
+            Arrays.sort(tokens, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || tokens[i].equals(tokens[unique - 1]) == false) {
+                    tokens[unique++] = tokens[i];
+                }
+            }
+            size = unique;
+            return size;
+        }
+
+        private String join(StringBuilder builder, String[] tokens, int size) {
+            builder.setLength(0);
+            for (int i = 0; i < size; i++) {
+                append(builder, tokens[i]);
+            }
+            return builder.toString();
+        }
+
+        /*
+         * The remembered scores are only good for one inner matcher and probe.
+         */
+        private void memoFor(String matcherName, TokenProbe probe) {
+            if (probe != memoProbe || matcherName.equals(memoMatcher) == false) {
+                memo.clear();
+                memoMatcher = matcherName;
+                memoProbe = probe;
+            }
+        }
+
+        private double innerScore(StringComparisonMatcher inner, TokenProbe probe, int index, String token) {
+            double[] scores = memo.get(token);
+            if (scores == null) {
+                if (memo.size() >= MAX_MEMO_SIZE) {
+                    memo.clear();
+                }
+                scores = new double[probe.tokens.length];
+                Arrays.fill(scores, Double.NaN);
+                memo.put(token, scores);
+            }
+            if (Double.isNaN(scores[index])) {
+                scores[index] = inner.score(probe.tokens[index], token);
+            }
+            return scores[index];
         }
 
-        return matchers.get(matcherName);
     }
 
     /*
@@ -8,28 +8,119 @@
 package org.opensearch.scoring.similarity;
 
 import org.opensearch.plugins.Plugin;
+import org.apache.lucene.geo.GeoEncodingUtils;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.sandbox.document.HalfFloatPoint;
+import org.apache.lucene.util.NumericUtils;
+import org.apache.lucene.util.SetOnce;
+import org.opensearch.common.geo.GeoPoint;
+import org.opensearch.common.geo.GeoUtils;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionResponse;
+import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.node.DiscoveryNodes;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.IndexScopedSettings;
+import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.common.time.DateFormatter;
+import org.opensearch.common.time.DateUtils;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.env.Environment;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.index.analysis.TokenFilterFactory;
+import org.opensearch.index.mapper.MappedFieldType;
+import org.opensearch.indices.analysis.AnalysisModule.AnalysisProvider;
+import org.opensearch.plugins.ActionPlugin;
+import org.opensearch.plugins.AnalysisPlugin;
 import org.opensearch.plugins.Plugin;
 import org.opensearch.plugins.ScriptPlugin;
+import org.opensearch.plugins.SearchPlugin;
+import org.opensearch.repositories.RepositoriesService;
+import org.opensearch.rest.RestController;
+import org.opensearch.rest.RestHandler;
 import org.opensearch.script.ScoreScript;
 import org.opensearch.script.ScoreScript.LeafFactory;
 import org.opensearch.script.ScriptContext;
 import org.opensearch.script.ScriptEngine;
 import org.opensearch.script.ScriptFactory;
+import org.opensearch.script.ScriptService;
 import org.opensearch.search.lookup.SearchLookup;
+import org.opensearch.search.lookup.SourceLookup;
 import org.opensearch.scoring.similarity.MatcherService;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ExecutorBuilder;
+import org.opensearch.threadpool.FixedExecutorBuilder;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.watcher.ResourceWatcherService;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
+
+public class RecordLinkagePlugin extends Plugin implements ScriptPlugin, AnalysisPlugin, SearchPlugin, ActionPlugin {
+
+    /**
+     * The name of the bounded thread pool the rescore slices and the estimate tasks run on.
+     */
+    public static final String THREAD_POOL_NAME = "record_linkage";
+
+    private final TermStatsCache termStatsCache;
+    private final SetOnce<ThreadPool> threadPool = new SetOnce<>();
+
+    public RecordLinkagePlugin(Settings settings) {
+        this.termStatsCache = new TermStatsCache(settings);
+    }
+
+    @Override
+    public Collection<Object> createComponents(Client client, ClusterService clusterService, ThreadPool threadPool,
+            ResourceWatcherService resourceWatcherService, ScriptService scriptService,
+            NamedXContentRegistry xContentRegistry, Environment environment, NodeEnvironment nodeEnvironment,
+            NamedWriteableRegistry namedWriteableRegistry, IndexNameExpressionResolver indexNameExpressionResolver,
+            Supplier<RepositoriesService> repositoriesServiceSupplier) {
+        this.threadPool.set(threadPool);
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the status of the {@link ClusterTask} so it can be read from the task management API.
+     */
+    @Override
+    public List<NamedWriteableRegistry.Entry> getNamedWriteables() {
+        return Collections.singletonList(new NamedWriteableRegistry.Entry(Task.Status.class, ClusterTask.Status.NAME,
+                ClusterTask.Status::new));
+    }
+
+    /**
+     * Returns the record_linkage thread pool, one thread per processor with a bounded queue like the search pool.
+     */
+    @Override
+    public List<ExecutorBuilder<?>> getExecutorBuilders(Settings settings) {
+        return Collections.singletonList(new FixedExecutorBuilder(settings, THREAD_POOL_NAME,
+                OpenSearchExecutors.allocatedProcessors(settings), 1000));
+    }
+
+    @Override
+    public List<Setting<?>> getSettings() {
+        return Collections.singletonList(TermStatsCache.SIZE_SETTING);
+    }
 
-public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
         /**
      * Returns a {@link ScriptEngine} instance.
      *
@@ -38,7 +129,55 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
      */
     @Override
     public ScriptEngine getScriptEngine(Settings settings, Collection<ScriptContext<?>> contexts) {
-        return new SimilarityScriptEngine();
+        return new SimilarityScriptEngine(termStatsCache);
+    }
+
+    /**
+     * Returns the deletion_neighbourhood token filter used to index the candidates for the edit distance matchers.
+     */
+    @Override
+    public Map<String, AnalysisProvider<TokenFilterFactory>> getTokenFilters() {
+        return Collections.singletonMap(DeletionNeighbourhoodTokenFilterFactory.NAME, DeletionNeighbourhoodTokenFilterFactory::new);
+    }
+
+    /**
+     * Returns the deletion_neighbourhood query used to find the candidates for the edit distance matchers.
+     */
+    @Override
+    public List<QuerySpec<?>> getQueries() {
+        return Collections.singletonList(new QuerySpec<>(DeletionNeighbourhoodQueryBuilder.NAME,
+                DeletionNeighbourhoodQueryBuilder::new, DeletionNeighbourhoodQueryBuilder::fromXContent));
+    }
+
+    /**
+     * Returns the record_linkage rescorer used to run the costly matchers only on the top documents.
+     */
+    @Override
+    public List<RescorerSpec<?>> getRescorers() {
+        return Collections.singletonList(new RescorerSpec<>(RecordLinkageRescorerBuilder.NAME,
+                in -> new RecordLinkageRescorerBuilder(in, termStatsCache, threadPool.get()),
+                parser -> RecordLinkageRescorerBuilder.fromXContent(parser, termStatsCache, threadPool.get())));
+    }
+
+    /**
+     * Returns the actions which estimate the Fellegi-Sunter m and u values from an index and cluster the linked
+     * records.
+     */
+    @Override
+    public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
+        return Arrays.asList(
+                new ActionHandler<>(EstimateAction.INSTANCE, TransportEstimateAction.class),
+                new ActionHandler<>(ClusterAction.INSTANCE, TransportClusterAction.class));
+    }
+
+    /**
+     * Returns the REST handlers for the _record_linkage/_estimate and _record_linkage/_cluster endpoints.
+     */
+    @Override
+    public List<RestHandler> getRestHandlers(Settings settings, RestController restController, ClusterSettings clusterSettings,
+            IndexScopedSettings indexScopedSettings, SettingsFilter settingsFilter,
+            IndexNameExpressionResolver indexNameExpressionResolver, Supplier<DiscoveryNodes> nodesInCluster) {
+        return Arrays.asList(new RestEstimateAction(), new RestClusterAction());
     }
 
     /**
@@ -46,6 +185,12 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
      */
     private static class SimilarityScriptEngine implements ScriptEngine {
 
+        private final TermStatsCache termStatsCache;
+
+        SimilarityScriptEngine(TermStatsCache termStatsCache) {
+            this.termStatsCache = termStatsCache;
+        }
+
         /**
          * The language name used in the script APIs to refer to this scripting backend.
          */
@@ -76,7 +221,7 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                 throw new IllegalArgumentException(getType() + " scripts cannot be used for context [" + context.name + "]");
             }
             if ("string_similarity".equals(scriptSource)) {
-                ScoreScript.Factory factory = new SimilarityFactory();
+                ScoreScript.Factory factory = new SimilarityFactory(termStatsCache);
                 return context.factoryClazz.cast(factory);
             }
             throw new IllegalArgumentException("Unknown script name " + scriptSource);
@@ -97,27 +242,48 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
      */
     private static class SimilarityFactory implements ScoreScript.Factory, ScriptFactory {
 
+        private final TermStatsCache termStatsCache;
+
+        SimilarityFactory(TermStatsCache termStatsCache) {
+            this.termStatsCache = termStatsCache;
+        }
+
         /**
          * @return a new instance of {@link SimilarityLeafFactory}.
          */
         @Override
         public LeafFactory newFactory(Map<String, Object> params, SearchLookup lookup) {
-            return new SimilarityLeafFactory(params, lookup);
+            return new SimilarityLeafFactory(params, lookup, termStatsCache);
         }
 
     }
 
     /**
-     * A factory to construct new {@link ScoreScript} instances.
+     * A factory to construct new {@link ScoreScript} instances. Also used by the {@link RecordLinkageRescorer} to
+     * score the documents in the rescore window.
+     * <p>
+     * The matchers and the pattern weights are compiled once and never change afterwards, so {@link #newInstance}
+     * can be called for different segments from different threads at the same time. Everything that changes while
+     * scoring, the doc values iterators and the source of the current document, belongs to the script of a single
+     * segment.
      */
-    private static class SimilarityLeafFactory implements LeafFactory {
+    static class SimilarityLeafFactory implements LeafFactory {
+
+        /**
+         * The score of the bayes score_mode when none of the matchers gave a score, outside of the 0 to 1 range of a
+         * probability.
+         */
+        static final double NOT_SCORED = 2;
 
         private final MatcherService matcherService = new MatcherService();
-        private Map<String, Object> params;
-        private List<MatcherModel> matchers;
-        private SearchLookup lookup;
+        private final Map<String, Object> params;
+        private final List<MatcherModel> matchers;
+        private final SearchLookup lookup;
+        private final PatternWeights patternWeights;
+        private final TermStatsCache termStatsCache;
+        private volatile double[] termFrequencyAdjustments;
 
-        SimilarityLeafFactory(Map<String, Object> params, SearchLookup lookup) {
+        SimilarityLeafFactory(Map<String, Object> params, SearchLookup lookup, TermStatsCache termStatsCache) {
             if (params.containsKey("matchers") == false) {
                 throw new IllegalArgumentException("Missing parameter [matchers]");
             }
@@ -135,8 +301,22 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                 throw new IllegalArgumentException("Missing parameter [base_score] for fellegi-sunter (because results can't be negative)");
             }
             this.params = params;
-            this.matchers = MatcherModelParser.parseMatcherModels(params);
+            this.matchers = Collections.unmodifiableList(MatcherModelParser.parseMatcherModels(params));
             this.lookup = lookup;
+            for (MatcherModel matcherModel : matchers) {
+                if (MatcherService.isTyped(matcherModel.matcherName)) {
+                    matcherModel.fieldType(lookup.fieldType(matcherModel.fieldName));
+                }
+                if (MatcherService.isTokenSet(matcherModel.matcherName)) {
+                    matcherModel.thresholdsFor(score_mode);
+                }
+            }
+            this.termStatsCache = termStatsCache;
+            if (score_mode.equals("fellegi-sunter")) {
+                this.patternWeights = PatternWeights.build(matchers, Double.parseDouble(String.valueOf(params.get("base_score"))));
+            } else {
+                this.patternWeights = null;
+            }
         }
 
         @Override
@@ -144,6 +324,37 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
             return false;
         }
 
+        /**
+         * The term frequency adjustments of the matchers, computed from the shard of the first segment that is scored
+         * and shared by the scripts of all the other segments. The factory lives for one query on one shard, and the
+         * rescorer may create the scripts of its segments on several threads.
+         */
+        private double[] termFrequencyAdjustments(LeafReaderContext ctx) throws IOException {
+            double[] adjustments = termFrequencyAdjustments;
+            if (adjustments == null) {
+                synchronized (this) {
+                    adjustments = termFrequencyAdjustments;
+                    if (adjustments == null) {
+                        adjustments = new double[matchers.size()];
+                        for (int i = 0; i < matchers.size(); i++) {
+                            MatcherModel matcherModel = matchers.get(i);
+                            if (matcherModel.tfField != null && !matcherModel.value.equals("")) {
+                                double frequency = termStatsCache.frequency(ctx, matcherModel.tfField,
+                                        matcherModel.value.trim().toLowerCase(Locale.getDefault()));
+                                // A value missing from the index keeps the u_value of the matcher.
+                                if (frequency > 0.0) {
+                                    adjustments[i] = java.lang.Math.log10( matcherModel.mValue / frequency )
+                                            - matcherModel.levelWeights[0];
+                                }
+                            }
+                        }
+                        termFrequencyAdjustments = adjustments;
+                    }
+                }
+            }
+            return adjustments;
+        }
+
         @Override
         public ScoreScript newInstance(LeafReaderContext ctx) throws IOException {
 
@@ -151,12 +362,15 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
             if ( score_mode.equals( "fellegi-sunter" ) ) {
 
                 double base_score = Double.parseDouble( String.valueOf( params.get("base_score") ) );
-                return new ScoreScript(params, lookup, ctx) {
+                return new LinkageScoreScript(ctx) {
                     @Override
                     public double execute(ExplanationHolder explanation) {
                         double totalScore = base_score;
-                        for (MatcherModel matcherModel : matchers) {
-                            String value = String.valueOf(lookup.source().get(matcherModel.fieldName));
+                        double adjustment = 0.0;
+                        int pattern = 0;
+                        for (int i = 0; i < matchers.size(); i++) {
+                            MatcherModel matcherModel = matchers.get(i);
+                            String value = fieldValue(i);
                             String nullHandling = "";
                             if ( value.equals("") && matcherModel.value.equals("") ) {
                               if ( matcherModel.nullHandlingBoth.equals("") ) {
@@ -167,36 +381,44 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                             } else if ( value.equals("") || matcherModel.value.equals("") ) {
                               nullHandling = matcherModel.nullHandling;
                             }
+                            if ( nullHandling.equals("off") && missingTypedValue(i, value) ) {
+                              nullHandling = "conservative";
+                            }
+                            int level;
                             if ( nullHandling.equals("conservative") ) {
-                              totalScore += matcherModel.unmatch;
+                              level = matcherModel.disagreeLevel();
                             } else if ( nullHandling.equals("greedy") ) {
-                              totalScore += matcherModel.match;
+                              level = 0;
                             } else if ( nullHandling.equals("moderate") ) {
                               // No change to score if moderate
-                              //totalScore += 0.0;
+                              level = matcherModel.noScoreLevel();
                             } else {
-                                double score = matcherService.matchScore(matcherModel.matcherName, matcherModel.value, value);
-                                if ( matcherService.isDistance(matcherModel.matcherName) 
-                                    ? score <= matcherModel.threshold : score >= matcherModel.threshold ) {
-                                    totalScore += matcherModel.match;
-                                } else {
-                                    totalScore += matcherModel.unmatch;
+                                double score = matchScore(i, value);
+                                level = matcherModel.agreementLevel(score, matcherService.isDistance(matcherModel.matcherName));
+                                // Only a real agreement on the value, not greedy null handling, is as rare as the value.
+                                if ( level == 0 ) {
+                                    adjustment += termFrequencyAdjustment(i);
                                 }
                             }
+                            if ( patternWeights != null ) {
+                                pattern += level * patternWeights.strides[i];
+                            } else {
+                                totalScore += matcherModel.levelWeights[level];
+                            }
                         }
-                        return totalScore;
+                        return ( patternWeights != null ? patternWeights.weights[pattern] : totalScore ) + adjustment;
                     }
                 };
 
             } else if ( score_mode.equals( "bayes" ) ) { 
-                double NOT_SCORED = 2;
-                return new ScoreScript(params, lookup, ctx) {
+                return new LinkageScoreScript(ctx) {
 
                     @Override
                     public double execute(ExplanationHolder explanation) {
                         double totalScore = NOT_SCORED;
-                        for (MatcherModel matcherModel : matchers) {
-                            String value = String.valueOf(lookup.source().get(matcherModel.fieldName));
+                        for (int i = 0; i < matchers.size(); i++) {
+                            MatcherModel matcherModel = matchers.get(i);
+                            String value = fieldValue(i);
                             boolean noScore = false;
                             String nullHandling = "";
 
@@ -209,6 +431,9 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                             } else if ( value.equals("") || matcherModel.value.equals("") ) {
                               nullHandling = matcherModel.nullHandling;
                             }
+                            if ( nullHandling.equals("off") && missingTypedValue(i, value) ) {
+                              nullHandling = "conservative";
+                            }
 
                             double score;
                             if ( nullHandling.equals("conservative") ) {
@@ -221,7 +446,7 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                                 noScore = true;
                                 score = 0.0;
                             } else {
-                                score = matcherService.matchScore(matcherModel.matcherName, matcherModel.value, value);
+                                score = matchScore(i, value);
                                 if (score > matcherModel.high) {
                                     score = matcherModel.high;
                                 }
@@ -250,13 +475,14 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
 
              } else if ( score_mode.equals( "multiply" ) ) {
 
-                return new ScoreScript(params, lookup, ctx) {
+                return new LinkageScoreScript(ctx) {
 
                     @Override
                     public double execute(ExplanationHolder explanation) {
                         double totalScore = 1.0;
-                        for (MatcherModel matcherModel : matchers) {
-                            String value = String.valueOf(lookup.source().get(matcherModel.fieldName));
+                        for (int i = 0; i < matchers.size(); i++) {
+                            MatcherModel matcherModel = matchers.get(i);
+                            String value = fieldValue(i);
                             boolean noScore = false;
                             String nullHandling = "";
 
@@ -269,6 +495,9 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                             } else if ( value.equals("") || matcherModel.value.equals("") ) {
                               nullHandling = matcherModel.nullHandling;
                             }
+                            if ( nullHandling.equals("off") && missingTypedValue(i, value) ) {
+                              nullHandling = "conservative";
+                            }
 
                             double score;
                             if ( nullHandling.equals("conservative") ) {
@@ -282,7 +511,7 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                                 noScore = true;
                                 score = 0.0;
                             } else {
-                                score = matcherService.matchScore(matcherModel.matcherName, matcherModel.value, value);
+                                score = matchScore(i, value);
                                 if ( matcherModel.threshold != 0.0 ) {
                                     if ( matcherService.isDistance(matcherModel.matcherName) 
                                         ? score <= matcherModel.threshold : score >= matcherModel.threshold ) {
@@ -303,13 +532,14 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
 
              } else { // default to sum if nothing is set
 
-                return new ScoreScript(params, lookup, ctx) {
+                return new LinkageScoreScript(ctx) {
 
                     @Override
                     public double execute(ExplanationHolder explanation) {
                         double totalScore = 0.0;
-                        for (MatcherModel matcherModel : matchers) {
-                            String value = String.valueOf(lookup.source().get(matcherModel.fieldName));
+                        for (int i = 0; i < matchers.size(); i++) {
+                            MatcherModel matcherModel = matchers.get(i);
+                            String value = fieldValue(i);
                             String nullHandling = "";
 
                             if ( value.equals("") && matcherModel.value.equals("") ) {
@@ -321,6 +551,9 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                             } else if ( value.equals("") || matcherModel.value.equals("") ) {
                               nullHandling = matcherModel.nullHandling;
                             }
+                            if ( nullHandling.equals("off") && missingTypedValue(i, value) ) {
+                              nullHandling = "conservative";
+                            }
 
                             double score;
                             if ( nullHandling.equals("conservative") ) {
@@ -333,7 +566,7 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                                 //totalScore += 0.0;
                                 score = 0.0;
                             } else {
-                                score = matcherService.matchScore(matcherModel.matcherName, matcherModel.value, value);
+                                score = matchScore(i, value);
                                 if ( matcherModel.threshold != 0.0 ) {
                                     if ( matcherService.isDistance(matcherModel.matcherName) 
                                         ? score <= matcherModel.threshold : score >= matcherModel.threshold ) {
@@ -353,6 +586,222 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
              }
         }
 
+        /**
+         * Base {@link ScoreScript} for all the score modes. It reads the value of each matcher's field for the
+         * current document, either from the source or, for typed matchers, from the doc values of the segment.
+         * <p>
+         * The source is read with a {@link SourceLookup} of its own instead of the one shared by the whole
+         * {@link SearchLookup}, and the shared one is never moved to a document, so segments scored on different
+         * threads do not touch each other's lookup.
+         */
+        private abstract class LinkageScoreScript extends ScoreScript {
+
+            private final LeafReaderContext leafContext;
+            private final SourceLookup sourceLookup = new SourceLookup();
+            private final TypedDocValues[] typedValues;
+            private final MatcherService.TokenBuffer[] tokenBuffers;
+            private final double[] termFrequencyAdjustments;
+            private int docId;
+
+            LinkageScoreScript(LeafReaderContext ctx) throws IOException {
+                super(params, lookup, ctx);
+                this.leafContext = ctx;
+                this.typedValues = new TypedDocValues[matchers.size()];
+                this.tokenBuffers = new MatcherService.TokenBuffer[matchers.size()];
+                this.termFrequencyAdjustments = termFrequencyAdjustments(ctx);
+                for (int i = 0; i < matchers.size(); i++) {
+                    MatcherModel matcherModel = matchers.get(i);
+                    if (MatcherService.isTyped(matcherModel.matcherName)) {
+                        typedValues[i] = new TypedDocValues(ctx.reader(), matcherModel.fieldName);
+                    }
+                    if (MatcherService.isTokenSet(matcherModel.matcherName)) {
+                        tokenBuffers[i] = new MatcherService.TokenBuffer();
+                    }
+                }
+            }
+
+            /**
+             * Does not call the super method, which moves the leaf lookup of the {@link SearchLookup} and with it the
+             * {@link SourceLookup} shared by every segment. The script never reads the leaf lookup.
+             */
+            @Override
+            public void setDocument(int docid) {
+                this.docId = docid;
+            }
+
+            /**
+             * @return the value of the field for the current document or an empty string if it has none.
+             */
+            String fieldValue(int index) {
+                if (typedValues[index] == null) {
+                    sourceLookup.setSegmentAndDocument(leafContext, docId);
+                    return String.valueOf(sourceLookup.get(matchers.get(index).fieldName));
+                }
+                return typedValues[index].advance(docId);
+            }
+
+            /**
+             * A typed value can't be compared when the document or the query has none, so with null_handling off it
+             * disagrees the same as with conservative null handling.
+             *
+             * @return true if the matcher is typed and either the value of the document or of the query is missing.
+             */
+            boolean missingTypedValue(int index, String value) {
+                return typedValues[index] != null && ( value.equals("") || matchers.get(index).value.equals("") );
+            }
+
+            /**
+             * @return the change to the weight of the closest agreement level when the u_value is replaced by the
+             * frequency of the value in the index, or 0 if the matcher does not use term frequency adjustment.
+             */
+            double termFrequencyAdjustment(int index) {
+                return termFrequencyAdjustments[index];
+            }
+
+            /**
+             * @return the match score of the matcher against the value returned by {@link #fieldValue(int)}.
+             */
+            double matchScore(int index, String value) {
+                MatcherModel matcherModel = matchers.get(index);
+                if (tokenBuffers[index] != null) {
+                    return matcherService.matchScore(matcherModel.matcherName, matcherModel.innerMatcher,
+                            matcherModel.tokenProbe, value, tokenBuffers[index], matcherModel.loosestThreshold,
+                            matcherModel.strictestThreshold);
+                }
+                if (typedValues[index] == null) {
+                    return matcherService.matchScore(matcherModel.matcherName, matcherModel.value, value);
+                }
+                return typedValues[index].matchScore(matcherService, matcherModel);
+            }
+
+        }
+
+    }
+
+    /**
+     * The total fellegi-sunter score of every combination of agreement levels, computed once when the script is
+     * compiled. The outcome of each field is one of its agreement levels, disagree or no score, and the outcomes
+     * of all the fields are packed into a mixed radix pattern code which is the index into the table. Scoring a
+     * document is then a single lookup instead of adding up a weight per field.
+     */
+    private static class PatternWeights {
+
+        /**
+         * The largest table to build. With more matchers or levels the weights are added up for each document.
+         */
+        private static final int MAX_PATTERNS = 1 << 14;
+
+        private final int[] strides;
+        private final double[] weights;
+
+        private PatternWeights(int[] strides, double[] weights) {
+            this.strides = strides;
+            this.weights = weights;
+        }
+
+        /**
+         * @return the table or null if there are too many patterns.
+         */
+        static PatternWeights build(List<MatcherModel> matchers, double baseScore) {
+            int[] strides = new int[matchers.size()];
+            int size = 1;
+            for (int i = 0; i < matchers.size(); i++) {
+                strides[i] = size;
+                int outcomes = matchers.get(i).levelWeights.length;
+                if (size > MAX_PATTERNS / outcomes) {
+                    return null;
+                }
+                size *= outcomes;
+            }
+            double[] weights = new double[size];
+            for (int pattern = 0; pattern < size; pattern++) {
+                double weight = baseScore;
+                for (int i = 0; i < matchers.size(); i++) {
+                    double[] levelWeights = matchers.get(i).levelWeights;
+                    weight += levelWeights[(pattern / strides[i]) % levelWeights.length];
+                }
+                weights[pattern] = weight;
+            }
+            return new PatternWeights(strides, weights);
+        }
+
+    }
+
+    /**
+     * Reads the doc values of a field for a typed matcher. Integer numbers and dates are stored as a long per value,
+     * dates with nanosecond resolution in nanoseconds, doubles, floats and half floats in their sortable encoding and
+     * geo points as the encoded latitude and longitude packed into a single long. Integer numbers and dates are
+     * compared with a whole number value as longs.
+     */
+    private static class TypedDocValues {
+
+        /**
+         * Returned by {@link #advance(int)} when the document has a value, so the null handling can tell it apart
+         * from a missing value without decoding the value into a string.
+         */
+        private static final String HAS_VALUE = "has_value";
+
+        private final SortedNumericDocValues values;
+        private boolean hasValue;
+        private long current;
+
+        TypedDocValues(LeafReader reader, String fieldName) throws IOException {
+            this.values = DocValues.getSortedNumeric(reader, fieldName);
+        }
+
+        /**
+         * Positions the doc values on the document and loads its first value.
+         *
+         * @return {@link #HAS_VALUE} or an empty string if the document has no value for the field.
+         */
+        String advance(int docId) {
+            try {
+                hasValue = values.advanceExact(docId);
+                if (hasValue) {
+                    current = values.nextValue();
+                    return HAS_VALUE;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return "";
+        }
+
+        /**
+         * @return the distance between the value of the query and the current document, or the worst distance if the
+         * document has no value, so it is never compared against the value of another document.
+         */
+        double matchScore(MatcherService matcherService, MatcherModel matcherModel) {
+            if (!hasValue) {
+                return Double.POSITIVE_INFINITY;
+            }
+            if (matcherModel.matcherName.equals("geo-distance-km")) {
+                double lat = GeoEncodingUtils.decodeLatitude((int) (current >>> 32));
+                double lon = GeoEncodingUtils.decodeLongitude((int) (current & 0xFFFFFFFFL));
+                return matcherService.geoDistanceKm(matcherModel.probeLat, matcherModel.probeLon, lat, lon);
+            }
+            double docValue;
+            switch (matcherModel.fieldType) {
+                case "double":
+                    docValue = NumericUtils.sortableLongToDouble(current);
+                    break;
+                case "float":
+                    docValue = NumericUtils.sortableIntToFloat((int) current);
+                    break;
+                case "half_float":
+                    docValue = HalfFloatPoint.sortableShortToHalfFloat((short) current);
+                    break;
+                default:
+                    long longValue = matcherModel.fieldType.equals("date_nanos") ? DateUtils.toMilliSeconds(current) : current;
+                    if (matcherModel.hasLongProbe) {
+                        return matcherService.matchScore(matcherModel.matcherName, matcherModel.longProbe, longValue);
+                    }
+                    docValue = longValue;
+                    break;
+            }
+            return matcherService.matchScore(matcherModel.matcherName, matcherModel.probe, docValue);
+        }
+
     }
 
     /**
@@ -360,6 +809,11 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
      */
     private static class MatcherModel {
 
+        /**
+         * Parses the values for the date matchers, the same as the default format of a date field.
+         */
+        private static final DateFormatter DATE_FORMATTER = DateFormatter.forPattern("strict_date_optional_time||epoch_millis");
+
         /**
          * The name of the field to be matched.
          */
@@ -400,6 +854,26 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
          */
         private double threshold;
 
+        /**
+         * The thresholds of the agreement levels for fellegi-sunter, from the closest agreement to the loosest.
+         */
+        private double[] levelThresholds;
+
+        /**
+         * The weight of each agreement level, followed by the weight to disagree and 0 for no score.
+         */
+        private double[] levelWeights;
+
+        /**
+         * The m value of the closest agreement level.
+         */
+        private double mValue;
+
+        /**
+         * The keyword field to look the value up in for term frequency adjustment with fellegi-sunter, or null.
+         */
+        private String tfField;
+
         /**
          * The weight for the field when using sum or multiple score_modes.
          */
@@ -415,6 +889,54 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
          */
         private String nullHandlingBoth;
 
+        /**
+         * The mapped type of the field for the typed matchers, which decides how its doc values are decoded.
+         */
+        private String fieldType = "long";
+
+        /**
+         * The value parsed as a number, or as epoch milliseconds for dates, for the typed matchers.
+         */
+        private double probe;
+
+        /**
+         * The value parsed as a long when it is a whole number or a date, so it can be compared with integer and date
+         * fields without the loss of precision of a double above 2^53.
+         */
+        private long longProbe;
+
+        /**
+         * Whether {@link #longProbe} holds the value.
+         */
+        private boolean hasLongProbe;
+
+        /**
+         * The latitude of the value for the geo-distance-km matcher.
+         */
+        private double probeLat;
+
+        /**
+         * The longitude of the value for the geo-distance-km matcher.
+         */
+        private double probeLon;
+
+        /**
+         * The matcher to compare single tokens with for the monge-elkan matcher.
+         */
+        private String innerMatcher = MatcherService.DEFAULT_INNER_MATCHER;
+
+        /**
+         * The tokens of the value for the token set matchers.
+         */
+        private MatcherService.TokenProbe tokenProbe;
+
+        /**
+         * The lowest and highest thresholds of a similarity for the score mode, beyond which a token set matcher can
+         * stop early. See {@link #thresholdsFor(String)}.
+         */
+        private double loosestThreshold = Double.NEGATIVE_INFINITY;
+        private double strictestThreshold = Double.POSITIVE_INFINITY;
+
         /**
          * Constructs a new instance of a MatcherModel.
          */
@@ -429,9 +951,137 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
             this.match = java.lang.Math.log10( mValue / uValue );
             this.unmatch = java.lang.Math.log10( (1 - mValue) / (1 - uValue) );
             this.threshold = threshold;
+            this.levelThresholds = new double[] { threshold };
+            this.levelWeights = new double[] { match, unmatch, 0.0 };
+            this.mValue = mValue;
             this.weight = weight;
             this.nullHandling = nullHandling;
             this.nullHandlingBoth = nullHandlingBoth;
+            if ( MatcherService.isTyped(matcherName) && !this.value.equals("") ) {
+                parseTypedValue(value);
+            }
+            if ( MatcherService.isTokenSet(matcherName) ) {
+                this.tokenProbe = MatcherService.tokenProbe(this.value);
+            }
+        }
+
+        /**
+         * Replace the single agree or disagree level with graded agreement levels, each with its own m and u value.
+         * The weight to disagree is based on the m and u values left over after all the levels.
+         */
+        void agreementLevels(double[] thresholds, double[] mValues, double[] uValues) {
+            double mTotal = 0.0;
+            double uTotal = 0.0;
+            this.levelThresholds = thresholds;
+            this.levelWeights = new double[thresholds.length + 2];
+            for (int level = 0; level < thresholds.length; level++) {
+                levelWeights[level] = java.lang.Math.log10( mValues[level] / uValues[level] );
+                mTotal += mValues[level];
+                uTotal += uValues[level];
+            }
+            this.match = levelWeights[0];
+            this.mValue = mValues[0];
+            this.unmatch = java.lang.Math.log10( (1 - mTotal) / (1 - uTotal) );
+            levelWeights[disagreeLevel()] = unmatch;
+        }
+
+        /**
+         * Keep the thresholds the score is compared with when that comparison is all the score mode uses: the levels
+         * for fellegi-sunter and the threshold for multiply and sum if one is set. bayes and multiply and sum without
+         * a threshold use the score itself, so they keep no thresholds.
+         */
+        void thresholdsFor(String scoreMode) {
+            if ( scoreMode.equals("fellegi-sunter") ) {
+                this.loosestThreshold = levelThresholds[levelThresholds.length - 1];
+                this.strictestThreshold = levelThresholds[0];
+            } else if ( !scoreMode.equals("bayes") && threshold != 0.0 ) {
+                this.loosestThreshold = threshold;
+                this.strictestThreshold = threshold;
+            }
+        }
+
+        /**
+         * @return the first agreement level whose threshold the score meets or {@link #disagreeLevel()}.
+         */
+        int agreementLevel(double score, boolean distance) {
+            for (int level = 0; level < levelThresholds.length; level++) {
+                if ( distance ? score <= levelThresholds[level] : score >= levelThresholds[level] ) {
+                    return level;
+                }
+            }
+            return disagreeLevel();
+        }
+
+        int disagreeLevel() {
+            return levelThresholds.length;
+        }
+
+        int noScoreLevel() {
+            return levelThresholds.length + 1;
+        }
+
+        /**
+         * Check that the field of a typed matcher is mapped with a type the matcher can decode from the doc values and
+         * keep the type. A field that isn't mapped in the index has no values, so it is left as missing.
+         *
+         * @throws IllegalArgumentException if the field is mapped with another type or without doc values.
+         */
+        void fieldType(MappedFieldType mappedFieldType) {
+            if ( mappedFieldType == null ) {
+                return;
+            }
+            String typeName = mappedFieldType.typeName();
+            List<String> validTypes;
+            switch (matcherName) {
+                case "geo-distance-km":
+                    validTypes = Arrays.asList( "geo_point" );
+                    break;
+                case "date-within-days":
+                case "date-transposition":
+                    validTypes = Arrays.asList( "date", "date_nanos" );
+                    break;
+                default:
+                    validTypes = Arrays.asList( "long", "integer", "short", "byte", "double", "float", "half_float" );
+                    break;
+            }
+            if ( !validTypes.contains(typeName) ) {
+                throw new IllegalArgumentException("Invalid matcher configuration. The field [" + fieldName + "] of the ["
+                        + matcherName + "] matcher can only be of type: " + String.join(", ", validTypes) + ". Type is "
+                        + typeName);
+            }
+            if ( !mappedFieldType.hasDocValues() ) {
+                throw new IllegalArgumentException("Invalid matcher configuration. The field [" + fieldName + "] of the ["
+                        + matcherName + "] matcher must have doc values enabled.");
+            }
+            this.fieldType = typeName;
+        }
+
+        /*
+         * Parse the value once for the typed matchers so the documents can be compared without any string handling.
+         */
+        private void parseTypedValue(Object value) {
+            switch (matcherName) {
+                case "geo-distance-km":
+                    GeoPoint point = GeoUtils.parseGeoPoint(value, true);
+                    this.probeLat = point.lat();
+                    this.probeLon = point.lon();
+                    break;
+                case "date-within-days":
+                case "date-transposition":
+                    this.longProbe = DATE_FORMATTER.parseMillis(this.value);
+                    this.hasLongProbe = true;
+                    this.probe = longProbe;
+                    break;
+                default:
+                    this.probe = Double.parseDouble(this.value);
+                    try {
+                        this.longProbe = Long.parseLong(this.value.trim());
+                        this.hasLongProbe = true;
+                    } catch (NumberFormatException e) {
+                        // Not a whole number, so it is only compared as a double.
+                    }
+                    break;
+            }
         }
 
     }
@@ -451,10 +1101,16 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
         private static String MVALUE = "m_value";
         private static String UVALUE = "u_value";
         private static String THRESHOLD = "threshold";
+        private static String LEVELS = "levels";
+        private static String TF_FIELD = "tf_field";
         private static String WEIGHT = "weight";
         /* For null value handling */
         private static String NULL_HANDLING = "null_handling";
         private static String NULL_HANDLING_BOTH = "null_handling_both";
+        /* For the monge-elkan matcher */
+        private static String INNER_MATCHER = "inner_matcher";
+
+        private static final MatcherService MATCHER_SERVICE = new MatcherService();
 
         @SuppressWarnings("unchecked")
         public static List<MatcherModel> parseMatcherModels(Map<String, Object> params) {
@@ -464,7 +1120,7 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
             script.forEach(entry -> {
                 checkMatcherConfiguration(score_mode, entry);
                 String fieldName = String.valueOf(entry.get(FIELD));
-                String value = String.valueOf(entry.get(VALUE));
+                Object value = entry.get(VALUE);
                 String matcherName = String.valueOf(entry.get(MATCHER));
                 String nullHandling = "off";
                 String nullHandlingBoth = "";
@@ -476,7 +1132,22 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                 }
                 double high, low, mValue, uValue, threshold;
                 double weight = 1.0;
-                if ( score_mode.equals("fellegi-sunter" ) ) {
+                double[] levelThresholds = null, levelMValues = null, levelUValues = null;
+                if ( score_mode.equals("fellegi-sunter" ) && entry.containsKey(LEVELS) ) {
+                    List<Map<String, Object>> levels = (List<Map<String, Object>>) entry.get(LEVELS);
+                    levelThresholds = new double[levels.size()];
+                    levelMValues = new double[levels.size()];
+                    levelUValues = new double[levels.size()];
+                    for (int level = 0; level < levels.size(); level++) {
+                        levelThresholds[level] = Double.parseDouble( String.valueOf( levels.get(level).get(THRESHOLD) ) );
+                        levelMValues[level] = Double.parseDouble( String.valueOf( levels.get(level).get(MVALUE) ) );
+                        levelUValues[level] = Double.parseDouble( String.valueOf( levels.get(level).get(UVALUE) ) );
+                    }
+                    threshold = levelThresholds[0];
+                    mValue = levelMValues[0];
+                    uValue = levelUValues[0];
+                    high = low = 0.0;
+                } else if ( score_mode.equals("fellegi-sunter" ) ) {
                     mValue = Double.parseDouble( String.valueOf( entry.get(MVALUE) ) );
                     uValue = Double.parseDouble( String.valueOf( entry.get(UVALUE) ) );
                     threshold = Double.parseDouble( String.valueOf( entry.get(THRESHOLD) ) );
@@ -494,8 +1165,18 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
                         threshold = Double.parseDouble( String.valueOf( entry.get(THRESHOLD) ) );
                     }
                 }
-                matcherModels.add(new MatcherModel(fieldName, value, matcherName, high, low, mValue, uValue, 
-                      threshold, weight, nullHandling, nullHandlingBoth));
+                MatcherModel matcherModel = new MatcherModel(fieldName, value, matcherName, high, low, mValue, uValue, 
+                      threshold, weight, nullHandling, nullHandlingBoth);
+                if ( levelThresholds != null ) {
+                    matcherModel.agreementLevels(levelThresholds, levelMValues, levelUValues);
+                }
+                if ( score_mode.equals("fellegi-sunter") && entry.containsKey(TF_FIELD) ) {
+                    matcherModel.tfField = String.valueOf(entry.get(TF_FIELD));
+                }
+                if ( entry.containsKey(INNER_MATCHER) ) {
+                    matcherModel.innerMatcher = String.valueOf(entry.get(INNER_MATCHER));
+                }
+                matcherModels.add(matcherModel);
             });
             return matcherModels;
         }
@@ -510,7 +1191,13 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
             if (!entry.containsKey(MATCHER)) {
                 throw new IllegalArgumentException("Invalid matcher configuration. Missing: [" + MATCHER + "] property.");
             }
-            if ( score_mode.equals( "fellegi-sunter" ) ) {
+            if (entry.containsKey(INNER_MATCHER)) {
+                MatcherService.checkInnerMatcher(String.valueOf(entry.get(INNER_MATCHER)));
+            }
+            if ( score_mode.equals( "fellegi-sunter" ) && entry.containsKey(LEVELS) ) {
+                checkLevelsConfiguration(entry.get(LEVELS),
+                        MATCHER_SERVICE.isDistance(String.valueOf(entry.get(MATCHER))));
+            } else if ( score_mode.equals( "fellegi-sunter" ) ) {
                 if (!entry.containsKey(THRESHOLD)) {
                     throw new IllegalArgumentException("Invalid matcher configuration for fellegi-sunter. Missing: [" 
                             + THRESHOLD + "] property.");
@@ -535,5 +1222,47 @@ public class RecordLinkagePlugin extends Plugin implements ScriptPlugin {
             }
         }
 
+        /*
+         * The levels are matched in order, so they must go from the strictest threshold to the loosest, otherwise the
+         * stricter levels after a looser one could never be reached.
+         */
+        @SuppressWarnings("unchecked")
+        private static void checkLevelsConfiguration(Object levels, boolean distance) {
+            if (!(levels instanceof List) || ((List<?>) levels).isEmpty()) {
+                throw new IllegalArgumentException("Invalid matcher configuration for fellegi-sunter. [" 
+                        + LEVELS + "] must be a list of agreement levels.");
+            }
+            double mTotal = 0.0;
+            double uTotal = 0.0;
+            Double previousThreshold = null;
+            for (Object level : (List<Object>) levels) {
+                if (!(level instanceof Map)) {
+                    throw new IllegalArgumentException("Invalid matcher configuration for fellegi-sunter. Each of the [" 
+                            + LEVELS + "] must be an object.");
+                }
+                Map<String, Object> entry = (Map<String, Object>) level;
+                for (String property : Arrays.asList(THRESHOLD, MVALUE, UVALUE)) {
+                    if (!entry.containsKey(property)) {
+                        throw new IllegalArgumentException("Invalid matcher configuration for fellegi-sunter. Missing: [" 
+                                + property + "] property in [" + LEVELS + "].");
+                    }
+                }
+                double threshold = Double.parseDouble( String.valueOf( entry.get(THRESHOLD) ) );
+                if (previousThreshold != null && (distance ? threshold <= previousThreshold : threshold >= previousThreshold)) {
+                    throw new IllegalArgumentException("Invalid matcher configuration for fellegi-sunter. The [" + LEVELS
+                            + "] must be ordered from the strictest to the loosest [" + THRESHOLD + "], "
+                            + (distance ? "ascending for a distance" : "descending for a similarity") + ". " + threshold
+                            + " follows " + previousThreshold);
+                }
+                previousThreshold = threshold;
+                mTotal += Double.parseDouble( String.valueOf( entry.get(MVALUE) ) );
+                uTotal += Double.parseDouble( String.valueOf( entry.get(UVALUE) ) );
+            }
+            if (mTotal >= 1.0 || uTotal >= 1.0) {
+                throw new IllegalArgumentException("Invalid matcher configuration for fellegi-sunter. The [" + MVALUE 
+                        + "] and [" + UVALUE + "] of the [" + LEVELS + "] must each add up to less than 1.");
+            }
+        }
+
     }
 }
@@ -0,0 +1,249 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.opensearch.common.util.concurrent.OpenSearchRejectedExecutionException;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.script.ScoreScript;
+import org.opensearch.search.rescore.RescoreContext;
+import org.opensearch.search.rescore.Rescorer;
+import org.opensearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Rescores the documents in the window with the matchers of the {@link RecordLinkageRescorerBuilder} and combines
+ * the result with the score from the query. Documents outside of the window keep their score and stay after the
+ * rescored documents.
+ * <p>
+ * When the context has more than one slice, the window is split into ranges of doc ids which are scored in parallel
+ * on the bounded record_linkage thread pool, with the thread context of the search. The search thread scores the
+ * first range itself, and also any range the pool rejects because its queue is full. Each range creates its own
+ * scripts so nothing that changes while scoring is shared between the threads, and the scored ranges are merged
+ * into one ranking afterwards.
+ */
+public final class RecordLinkageRescorer implements Rescorer {
+
+    public static final RecordLinkageRescorer INSTANCE = new RecordLinkageRescorer();
+
+    /**
+     * Ranges smaller than this are not worth handing to another thread.
+     */
+    private static final int MIN_SLICE_SIZE = 256;
+
+    private RecordLinkageRescorer() {
+    }
+
+    @Override
+    public TopDocs rescore(TopDocs topDocs, IndexSearcher searcher, RescoreContext rescoreContext) throws IOException {
+        Context context = (Context) rescoreContext;
+        int windowSize = Math.min(context.getWindowSize(), topDocs.scoreDocs.length);
+        ScoreDoc[] window = Arrays.copyOf(topDocs.scoreDocs, windowSize);
+
+        // Visit the documents in doc id order so each segment is only opened once and its doc values move forward.
+        Arrays.sort(window, Comparator.comparingInt(scoreDoc -> scoreDoc.doc));
+        List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        int slices = Math.max(1, Math.min(context.slices, windowSize / MIN_SLICE_SIZE));
+        if (slices == 1) {
+            scoreRange(context, leaves, window, 0, windowSize);
+        } else {
+            scoreSlices(context, leaves, window, slices);
+        }
+        Arrays.sort(window, (a, b) -> Float.compare(b.score, a.score));
+
+        ScoreDoc[] scoreDocs = Arrays.copyOf(window, topDocs.scoreDocs.length);
+        System.arraycopy(topDocs.scoreDocs, windowSize, scoreDocs, windowSize, topDocs.scoreDocs.length - windowSize);
+        return new TopDocs(topDocs.totalHits, scoreDocs);
+    }
+
+    private static void scoreSlices(Context context, List<LeafReaderContext> leaves, ScoreDoc[] window, int slices)
+            throws IOException {
+        ExecutorService executor = context.threadPool.executor(RecordLinkagePlugin.THREAD_POOL_NAME);
+        ThreadContext threadContext = context.threadPool.getThreadContext();
+        List<FutureTask<Void>> tasks = new ArrayList<>(slices - 1);
+        try {
+            for (int slice = 1; slice < slices; slice++) {
+                int from = slice * window.length / slices;
+                int to = (slice + 1) * window.length / slices;
+                FutureTask<Void> task = new FutureTask<>(() -> {
+                    scoreRange(context, leaves, window, from, to);
+                    return null;
+                });
+                tasks.add(task);
+                try {
+                    executor.execute(threadContext.preserveContext(task));
+                } catch (OpenSearchRejectedExecutionException e) {
+                    task.run();
+                }
+            }
+            scoreRange(context, leaves, window, 0, window.length / slices);
+            for (FutureTask<Void> task : tasks) {
+                try {
+                    task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while rescoring the window", e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException("Failed to rescore the window", e.getCause());
+                }
+            }
+        } finally {
+            // Stop the slices which have not started yet if the rescore failed part way.
+            for (FutureTask<Void> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /*
+     * Score the documents of the window from index from to index to, which are sorted by doc id. A new script is
+     * created whenever the range moves into the next segment.
+     */
+    private static void scoreRange(Context context, List<LeafReaderContext> leaves, ScoreDoc[] window, int from, int to)
+            throws IOException {
+        LeafReaderContext leaf = null;
+        ScoreScript script = null;
+        for (int i = from; i < to; i++) {
+            ScoreDoc scoreDoc = window[i];
+            if (leaf == null || scoreDoc.doc >= leaf.docBase + leaf.reader().maxDoc()) {
+                leaf = leaves.get(ReaderUtil.subIndex(scoreDoc.doc, leaves));
+                script = context.leafFactory.newInstance(leaf);
+            }
+            script.setDocument(scoreDoc.doc - leaf.docBase);
+            scoreDoc.score = (float) combine(context, scoreDoc.score, script.execute(null));
+        }
+    }
+
+    @Override
+    public Explanation explain(int topLevelDocId, IndexSearcher searcher, RescoreContext rescoreContext,
+            Explanation sourceExplanation) throws IOException {
+        Context context = (Context) rescoreContext;
+        List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(topLevelDocId, leaves));
+        ScoreScript script = context.leafFactory.newInstance(leaf);
+        script.setDocument(topLevelDocId - leaf.docBase);
+        double score = script.execute(null);
+        double combined = combine(context, sourceExplanation.getValue().doubleValue(), score);
+        return Explanation.match((float) combined, "record_linkage rescore, combined with [" + context.combine + "] from:",
+                sourceExplanation, Explanation.match((float) score, "score of the rescore matchers"));
+    }
+
+    /*
+     * A bayes script returns NOT_SCORED when every matcher fell back to moderate null handling. That says nothing
+     * about the document, so the score from the query is kept as it is. The same goes for a bayes query combined with
+     * bayes, whose NOT_SCORED is not a probability and would break the naive Bayes combination, so the score from the
+     * rescorer is kept. If neither scored the document it stays NOT_SCORED.
+     */
+    private static double combine(Context context, double queryScore, double rescoreScore) {
+        if (context.bayes && rescoreScore == RecordLinkagePlugin.SimilarityLeafFactory.NOT_SCORED) {
+            return queryScore;
+        }
+        if ((context.bayes || "bayes".equals(context.combine)) && queryScore == RecordLinkagePlugin.SimilarityLeafFactory.NOT_SCORED) {
+            return rescoreScore;
+        }
+        return combine(context.combine, queryScore, rescoreScore);
+    }
+
+    /**
+     * Combine the score from the query with the score from the rescorer.
+     *
+     * <ul>
+     * <li>total: add the scores, the same as fellegi-sunter and sum add the score of each matcher.</li>
+     * <li>multiply: multiply the scores, the same as the multiply score_mode.</li>
+     * <li>bayes: combine the probabilities with naive Bayes, the same as the bayes score_mode. A certain match and a
+     * certain non-match cancel out to 0.5.</li>
+     * <li>replace: only use the score from the rescorer.</li>
+     * </ul>
+     */
+    static double combine(String combine, double queryScore, double rescoreScore) {
+        switch (combine) {
+            case "multiply":
+                return queryScore * rescoreScore;
+            case "bayes":
+                double denominator = (queryScore * rescoreScore) + ((1.0 - queryScore) * (1.0 - rescoreScore));
+                if (denominator == 0.0) {
+                    return 0.5;
+                }
+                return (queryScore * rescoreScore) / denominator;
+            case "replace":
+                return rescoreScore;
+            default:
+                return queryScore + rescoreScore;
+        }
+    }
+
+    /**
+     * @return the combine method which gives the same result as running all the matchers in one script.
+     */
+    static String defaultCombine(String scoreMode) {
+        switch (scoreMode) {
+            case "multiply":
+                return "multiply";
+            case "bayes":
+                return "bayes";
+            default:
+                return "total";
+        }
+    }
+
+    static void checkCombine(String combine) {
+        switch (combine) {
+            case "total":
+            case "multiply":
+            case "bayes":
+            case "replace":
+                return;
+            default:
+                throw new IllegalArgumentException(
+                        "Invalid parameter. Combine can only be: total, multiply, bayes or replace. Combine is " + combine);
+        }
+    }
+
+    /**
+     * The {@link RescoreContext} for the record_linkage rescorer with the compiled matchers.
+     */
+    static class Context extends RescoreContext {
+
+        private final ScoreScript.LeafFactory leafFactory;
+        private final String combine;
+        private final boolean bayes;
+        private final int slices;
+        private final ThreadPool threadPool;
+
+        Context(int windowSize, ScoreScript.LeafFactory leafFactory, String scoreMode, String combine, int slices,
+                ThreadPool threadPool) {
+            super(windowSize, INSTANCE);
+            this.leafFactory = leafFactory;
+            this.combine = combine;
+            this.bayes = "bayes".equals(scoreMode);
+            this.slices = slices;
+            this.threadPool = threadPool;
+        }
+
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.index.query.QueryRewriteContext;
+import org.opensearch.index.query.QueryShardContext;
+import org.opensearch.script.ScoreScript;
+import org.opensearch.search.rescore.RescoreContext;
+import org.opensearch.search.rescore.RescorerBuilder;
+import org.opensearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builds the record_linkage rescorer which runs a second set of matchers only on the top documents of the query.
+ * The parameters are the same as the params of the string_similarity script, plus an optional combine parameter
+ * for how the score from the query is combined with the score of the rescorer and an optional slices parameter to
+ * score large windows in parallel. This allows the inexpensive matchers to be run on every candidate in the query
+ * and the costly ones only on the documents in the window.
+ * <pre>
+ * "rescore": {
+ *   "window_size": 100,
+ *   "record_linkage": {
+ *     "score_mode": "fellegi-sunter",
+ *     "matchers": [ ... ]
+ *   }
+ * }
+ * </pre>
+ */
+public class RecordLinkageRescorerBuilder extends RescorerBuilder<RecordLinkageRescorerBuilder> {
+
+    public static final String NAME = "record_linkage";
+
+    private static final String COMBINE = "combine";
+    private static final String SLICES = "slices";
+
+    private final Map<String, Object> params;
+    private final String combine;
+    private final int slices;
+    private final TermStatsCache termStatsCache;
+    private final ThreadPool threadPool;
+
+    /**
+     * @param params  the parameters of the matchers, the same as for the string_similarity script.
+     * @param combine how to combine the scores: total, multiply, bayes or replace. When null the default for the
+     *                score_mode is used, see {@link RecordLinkageRescorer#defaultCombine(String)}.
+     * @param slices  the number of doc id ranges the window is split into to be scored in parallel, 1 to score
+     *                the whole window on the search thread.
+     * @param termStatsCache the node level cache for term frequency adjustment.
+     * @param threadPool     the thread pool with the record_linkage pool to score the slices on.
+     */
+    public RecordLinkageRescorerBuilder(Map<String, Object> params, String combine, int slices,
+            TermStatsCache termStatsCache, ThreadPool threadPool) {
+        if (params.containsKey("score_mode") == false) {
+            throw new IllegalArgumentException("Missing parameter [score_mode] for the [" + NAME + "] rescorer");
+        }
+        this.params = params;
+        this.combine = combine == null ? RecordLinkageRescorer.defaultCombine(String.valueOf(params.get("score_mode"))) : combine;
+        RecordLinkageRescorer.checkCombine(this.combine);
+        if (slices < 1) {
+            throw new IllegalArgumentException("Invalid parameter. Slices must be at least 1. Slices is " + slices);
+        }
+        this.slices = slices;
+        this.termStatsCache = termStatsCache;
+        this.threadPool = threadPool;
+    }
+
+    public RecordLinkageRescorerBuilder(StreamInput in, TermStatsCache termStatsCache, ThreadPool threadPool)
+            throws IOException {
+        super(in);
+        this.params = in.readMap();
+        this.combine = in.readString();
+        this.slices = in.readVInt();
+        this.termStatsCache = termStatsCache;
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeMap(params);
+        out.writeString(combine);
+        out.writeVInt(slices);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params xContentParams) throws IOException {
+        builder.startObject(NAME);
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            builder.field(entry.getKey(), entry.getValue());
+        }
+        builder.field(COMBINE, combine);
+        builder.field(SLICES, slices);
+        builder.endObject();
+    }
+
+    public static RecordLinkageRescorerBuilder fromXContent(XContentParser parser, TermStatsCache termStatsCache,
+            ThreadPool threadPool) throws IOException {
+        Map<String, Object> params = new HashMap<>(parser.map());
+        Object combine = params.remove(COMBINE);
+        Object slices = params.remove(SLICES);
+        return new RecordLinkageRescorerBuilder(params, combine == null ? null : String.valueOf(combine),
+                slices == null ? 1 : Integer.parseInt(String.valueOf(slices)), termStatsCache, threadPool);
+    }
+
+    @Override
+    protected RescoreContext innerBuildContext(int windowSize, QueryShardContext context) throws IOException {
+        Map<String, Object> scriptParams = new HashMap<>(params);
+        // The query has already added the base score for fellegi-sunter so the rescorer only adds the weights.
+        scriptParams.putIfAbsent("base_score", 0.0);
+        ScoreScript.LeafFactory leafFactory = new RecordLinkagePlugin.SimilarityLeafFactory(scriptParams, context.lookup(),
+                termStatsCache);
+        return new RecordLinkageRescorer.Context(windowSize, leafFactory, String.valueOf(params.get("score_mode")), combine,
+                slices, threadPool);
+    }
+
+    @Override
+    public RecordLinkageRescorerBuilder rewrite(QueryRewriteContext ctx) throws IOException {
+        return this;
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (super.equals(obj) == false) {
+            return false;
+        }
+        RecordLinkageRescorerBuilder other = (RecordLinkageRescorerBuilder) obj;
+        return Objects.equals(params, other.params) && Objects.equals(combine, other.combine) && slices == other.slices;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), params, combine, slices);
+    }
+
+}
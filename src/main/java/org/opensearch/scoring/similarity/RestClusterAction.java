@@ -0,0 +1,101 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.BytesRestResponse;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.tasks.LoggingTaskListener;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskId;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.opensearch.rest.RestRequest.Method.POST;
+
+/**
+ * Clusters the records of an index from the linked pairs in another index. With wait_for_completion=false the
+ * response is the id of the task instead, which can be followed and cancelled with the task management API.
+ * <pre>
+ * POST /patients/_record_linkage/_cluster
+ * {
+ *   "pairs_index": "patient-pairs",
+ *   "min_score": 105
+ * }
+ * </pre>
+ */
+public class RestClusterAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "record_linkage_cluster_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return Collections.singletonList(new Route(POST, "/{index}/_record_linkage/_cluster"));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        ClusterRequest clusterRequest = new ClusterRequest(request.param("index"));
+        try (XContentParser parser = request.contentParser()) {
+            parse(parser, clusterRequest);
+        }
+        if (request.paramAsBoolean("wait_for_completion", true) == false) {
+            clusterRequest.setShouldStoreResult(true);
+            Task task = client.executeLocally(ClusterAction.INSTANCE, clusterRequest, LoggingTaskListener.instance());
+            return channel -> {
+                try (XContentBuilder builder = channel.newBuilder()) {
+                    builder.startObject();
+                    builder.field("task", new TaskId(client.getLocalNodeId(), task.getId()).toString());
+                    builder.endObject();
+                    channel.sendResponse(new BytesRestResponse(RestStatus.OK, builder));
+                }
+            };
+        }
+        return channel -> client.execute(ClusterAction.INSTANCE, clusterRequest, new RestToXContentListener<>(channel));
+    }
+
+    private static void parse(XContentParser parser, ClusterRequest clusterRequest) throws IOException {
+        XContentParser.Token token = parser.nextToken();
+        if (token != XContentParser.Token.START_OBJECT) {
+            throw new IllegalArgumentException("The body of the request must be an object");
+        }
+        String currentFieldName = null;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if ("pairs_index".equals(currentFieldName)) {
+                clusterRequest.pairsIndex(parser.text());
+            } else if ("left_field".equals(currentFieldName)) {
+                clusterRequest.leftField(parser.text());
+            } else if ("right_field".equals(currentFieldName)) {
+                clusterRequest.rightField(parser.text());
+            } else if ("score_field".equals(currentFieldName)) {
+                clusterRequest.scoreField(parser.text());
+            } else if ("min_score".equals(currentFieldName)) {
+                clusterRequest.minScore(parser.doubleValue());
+            } else if ("cluster_field".equals(currentFieldName)) {
+                clusterRequest.clusterField(parser.text());
+            } else if ("batch_size".equals(currentFieldName)) {
+                clusterRequest.batchSize(parser.intValue());
+            } else {
+                throw new IllegalArgumentException("Unknown parameter [" + currentFieldName + "] for the cluster request");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.Strings;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.index.query.AbstractQueryBuilder;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.opensearch.rest.RestRequest.Method.POST;
+
+/**
+ * Estimates the Fellegi-Sunter m and u values for the matchers from the records in an index.
+ * <pre>
+ * POST /patients/_record_linkage/_estimate
+ * {
+ *   "query": { "match": { "gender": "female" } },
+ *   "block_field": "birth_year",
+ *   "sample_size": 1000,
+ *   "matchers": [{ "field": "given", "matcher": "jaro-winkler-similarity", "threshold": 0.9 }]
+ * }
+ * </pre>
+ */
+public class RestEstimateAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "record_linkage_estimate_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return Collections.singletonList(new Route(POST, "/{index}/_record_linkage/_estimate"));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        EstimateRequest estimateRequest = new EstimateRequest(Strings.splitStringByCommaToArray(request.param("index")));
+        try (XContentParser parser = request.contentParser()) {
+            parse(parser, estimateRequest);
+        }
+        return channel -> client.execute(EstimateAction.INSTANCE, estimateRequest, new RestToXContentListener<>(channel));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void parse(XContentParser parser, EstimateRequest estimateRequest) throws IOException {
+        XContentParser.Token token = parser.nextToken();
+        if (token != XContentParser.Token.START_OBJECT) {
+            throw new IllegalArgumentException("The body of the request must be an object");
+        }
+        String currentFieldName = null;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+            if (token == XContentParser.Token.FIELD_NAME) {
+                currentFieldName = parser.currentName();
+            } else if ("query".equals(currentFieldName)) {
+                estimateRequest.query(AbstractQueryBuilder.parseInnerQueryBuilder(parser));
+            } else if ("matchers".equals(currentFieldName)) {
+                List<Map<String, Object>> matchers = new ArrayList<>();
+                for (Object matcher : parser.list()) {
+                    matchers.add((Map<String, Object>) matcher);
+                }
+                estimateRequest.matchers(matchers);
+            } else if ("block_field".equals(currentFieldName)) {
+                estimateRequest.blockField(parser.text());
+            } else if ("sample_size".equals(currentFieldName)) {
+                estimateRequest.sampleSize(parser.intValue());
+            } else if ("block_size".equals(currentFieldName)) {
+                estimateRequest.blockSize(parser.intValue());
+            } else if ("max_pairs".equals(currentFieldName)) {
+                estimateRequest.maxPairs(parser.intValue());
+            } else if ("max_iterations".equals(currentFieldName)) {
+                estimateRequest.maxIterations(parser.intValue());
+            } else if ("tolerance".equals(currentFieldName)) {
+                estimateRequest.tolerance(parser.doubleValue());
+            } else if ("initial_m".equals(currentFieldName)) {
+                estimateRequest.initialM(parser.doubleValue());
+            } else if ("initial_u".equals(currentFieldName)) {
+                estimateRequest.initialU(parser.doubleValue());
+            } else if ("proportion".equals(currentFieldName)) {
+                estimateRequest.proportion(parser.doubleValue());
+            } else {
+                throw new IllegalArgumentException("Unknown parameter [" + currentFieldName + "] for the estimate request");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.settings.Setting;
+import org.opensearch.common.settings.Settings;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A bounded node level cache of the document frequency of the values used for term frequency adjustment. The
+ * frequencies are cached per segment, keyed on the segment core, since the terms dictionary of a segment never
+ * changes. Entries for merged away segments are never looked up again and are evicted as the cache fills up.
+ */
+public class TermStatsCache {
+
+    public static final Setting<Integer> SIZE_SETTING = Setting.intSetting("record_linkage.term_stats_cache.size", 10000, 1,
+            Setting.Property.NodeScope);
+
+    private final Cache<Key, Integer> cache;
+
+    public TermStatsCache(Settings settings) {
+        this.cache = CacheBuilder.<Key, Integer>builder().setMaximumWeight(SIZE_SETTING.get(settings)).build();
+    }
+
+    /**
+     * Get the frequency of the value in the field across all the segments of the shard of the leaf, as a fraction of
+     * the documents in the shard. Both counts include deleted documents, since the document frequency of a term does.
+     * This walks every segment of the shard, so call it once per query and shard, not once per segment.
+     *
+     * @return the frequency or 0 if the value is not in the index.
+     */
+    public double frequency(LeafReaderContext ctx, String field, String value) throws IOException {
+        BytesRef term = new BytesRef(value);
+        long docFreq = 0;
+        long maxDoc = 0;
+        for (LeafReaderContext leaf : ReaderUtil.getTopLevelContext(ctx).leaves()) {
+            docFreq += docFreq(leaf.reader(), field, term);
+            maxDoc += leaf.reader().maxDoc();
+        }
+        return maxDoc == 0 ? 0.0 : (double) docFreq / maxDoc;
+    }
+
+    private int docFreq(LeafReader reader, String field, BytesRef term) throws IOException {
+        IndexReader.CacheHelper cacheHelper = reader.getCoreCacheHelper();
+        if (cacheHelper == null) {
+            return reader.docFreq(new Term(field, term));
+        }
+        try {
+            return cache.computeIfAbsent(new Key(cacheHelper.getKey(), field, term), key -> reader.docFreq(new Term(field, term)));
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to load the frequency of [" + term.utf8ToString() + "] in [" + field + "]", e.getCause());
+        }
+    }
+
+    private static class Key {
+
+        private final IndexReader.CacheKey segment;
+        private final String field;
+        private final BytesRef term;
+
+        Key(IndexReader.CacheKey segment, String field, BytesRef term) {
+            this.segment = segment;
+            this.field = field;
+            this.term = term;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return segment == other.segment && field.equals(other.field) && term.equals(other.term);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(segment), field, term);
+        }
+
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.util.IOUtils;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.search.ClearScrollRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.SearchScrollRequest;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.client.Client;
+import org.opensearch.common.CheckedConsumer;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.xcontent.support.XContentMapValues;
+import org.opensearch.env.Environment;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Clusters the records of an index with a union-find over the linked pairs. The ids of the records are scrolled
+ * into an {@link IdOrdinals} map, the pairs with a score of at least min_score are scrolled and merged in the
+ * {@link UnionFind}, and then every record is updated with the id of the root record of its cluster. All the data
+ * kept for each record is in memory mapped files in the node's temporary directory, so the heap only holds a batch
+ * of hits or updates at a time. The work is done on the generic thread pool since it blocks on the searches. The
+ * {@link ClusterTask} is checked for cancellation and updated with the progress after each batch.
+ */
+public class TransportClusterAction extends HandledTransportAction<ClusterRequest, ClusterResponse> {
+
+    private static final TimeValue KEEP_ALIVE = TimeValue.timeValueMinutes(5);
+
+    private final Client client;
+    private final ThreadPool threadPool;
+    private final Environment environment;
+
+    @Inject
+    public TransportClusterAction(TransportService transportService, ActionFilters actionFilters, Client client,
+            ThreadPool threadPool, Environment environment) {
+        super(ClusterAction.NAME, transportService, actionFilters, ClusterRequest::new);
+        this.client = client;
+        this.threadPool = threadPool;
+        this.environment = environment;
+    }
+
+    @Override
+    protected void doExecute(Task task, ClusterRequest request, ActionListener<ClusterResponse> listener) {
+        ClusterTask clusterTask = (ClusterTask) task;
+        threadPool.generic().execute(() -> {
+            try {
+                listener.onResponse(cluster(clusterTask, request));
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private ClusterResponse cluster(ClusterTask task, ClusterRequest request) throws IOException {
+        Path directory = Files.createTempDirectory(environment.tmpFile(), "record-linkage-cluster");
+        try {
+            IdOrdinals ids = null;
+            UnionFind unionFind = null;
+            try {
+                ids = readRecords(task, request, directory);
+                task.phase("pairs");
+                unionFind = new UnionFind(directory.resolve("clusters"), ids.size());
+                long pairs = readPairs(task, request, ids, unionFind);
+                task.phase("clusters");
+                return writeClusters(task, request, ids, unionFind, pairs);
+            } finally {
+                IOUtils.close(ids, unionFind);
+            }
+        } finally {
+            IOUtils.rm(directory);
+        }
+    }
+
+    private IdOrdinals readRecords(ClusterTask task, ClusterRequest request, Path directory) throws IOException {
+        SearchRequest searchRequest = new SearchRequest(request.index()).scroll(KEEP_ALIVE).source(new SearchSourceBuilder()
+            .query(QueryBuilders.matchAllQuery())
+            .size(request.batchSize())
+            .fetchSource(false)
+            .sort("_doc")
+            .trackTotalHits(true));
+        SearchResponse response = client.search(searchRequest).actionGet();
+        try (IdOrdinals.Builder builder = new IdOrdinals.Builder(directory, response.getHits().getTotalHits().value)) {
+            forEachHit(task, response, hit -> task.records(builder.add(hit.getId()) + 1));
+            return builder.build();
+        }
+    }
+
+    private long readPairs(ClusterTask task, ClusterRequest request, IdOrdinals ids, UnionFind unionFind)
+            throws IOException {
+        SearchRequest searchRequest = new SearchRequest(request.pairsIndex()).scroll(KEEP_ALIVE).source(new SearchSourceBuilder()
+            .query(QueryBuilders.rangeQuery(request.scoreField()).gte(request.minScore()))
+            .size(request.batchSize())
+            .fetchSource(new String[] { request.leftField(), request.rightField() }, null)
+            .sort("_doc"));
+        long[] pairs = new long[1];
+        forEachHit(task, client.search(searchRequest).actionGet(), hit -> {
+            Map<String, Object> source = hit.getSourceAsMap();
+            long left = ids.ordinal(String.valueOf(XContentMapValues.extractValue(request.leftField(), source)));
+            long right = ids.ordinal(String.valueOf(XContentMapValues.extractValue(request.rightField(), source)));
+            // Pairs with a record which is not in the index any more are skipped.
+            if (left >= 0 && right >= 0) {
+                unionFind.union(left, right);
+                task.pairs(++pairs[0]);
+            }
+        });
+        return pairs[0];
+    }
+
+    private ClusterResponse writeClusters(ClusterTask task, ClusterRequest request, IdOrdinals ids, UnionFind unionFind,
+            long pairs) {
+        long clusters = 0;
+        long failed = 0;
+        BulkRequest bulkRequest = new BulkRequest();
+        for (long ordinal = 0; ordinal < ids.size(); ordinal++) {
+            long root = unionFind.find(ordinal);
+            if (root == ordinal) {
+                clusters++;
+            }
+            bulkRequest.add(new UpdateRequest(request.index(), ids.id(ordinal))
+                .doc(Collections.singletonMap(request.clusterField(), ids.id(root))));
+            if (bulkRequest.numberOfActions() == request.batchSize()) {
+                task.ensureNotCancelled();
+                failed += bulk(bulkRequest);
+                task.updated(ordinal + 1 - failed);
+                bulkRequest = new BulkRequest();
+            }
+        }
+        if (bulkRequest.numberOfActions() > 0) {
+            failed += bulk(bulkRequest);
+            task.updated(ids.size() - failed);
+        }
+        return new ClusterResponse(ids.size(), pairs, clusters, ids.size() - failed, failed);
+    }
+
+    /**
+     * @return the number of failed updates.
+     */
+    private long bulk(BulkRequest bulkRequest) {
+        BulkResponse bulkResponse = client.bulk(bulkRequest).actionGet();
+        long failed = 0;
+        for (BulkItemResponse item : bulkResponse.getItems()) {
+            if (item.isFailed()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /*
+     * Pass every hit of the scroll to the consumer, starting with the hits of the first response, and then clear the
+     * scroll. Stops with a TaskCancelledException after the batch in which the task is cancelled.
+     */
+    private void forEachHit(ClusterTask task, SearchResponse response, CheckedConsumer<SearchHit, IOException> consumer)
+            throws IOException {
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length > 0) {
+                for (SearchHit hit : response.getHits().getHits()) {
+                    consumer.accept(hit);
+                }
+                task.ensureNotCancelled();
+                response = client.searchScroll(new SearchScrollRequest(scrollId).scroll(KEEP_ALIVE)).actionGet();
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+            clearScrollRequest.addScrollId(scrollId);
+            client.clearScroll(clearScrollRequest).actionGet();
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.MultiSearchRequest;
+import org.opensearch.action.search.MultiSearchResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.client.Client;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.xcontent.support.XContentMapValues;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.functionscore.ScoreFunctionBuilders;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Samples the records from the index with a random score, fetches the block of each sampled record, pairs up the
+ * records within each block and runs the {@link FellegiSunterEstimator} on the pairs. The estimation waits on the
+ * generic thread pool while its ranges run on the bounded record_linkage thread pool.
+ */
+public class TransportEstimateAction extends HandledTransportAction<EstimateRequest, EstimateResponse> {
+
+    private final Client client;
+    private final ThreadPool threadPool;
+
+    @Inject
+    public TransportEstimateAction(TransportService transportService, ActionFilters actionFilters, Client client,
+            ThreadPool threadPool) {
+        super(EstimateAction.NAME, transportService, actionFilters, EstimateRequest::new);
+        this.client = client;
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    protected void doExecute(Task task, EstimateRequest request, ActionListener<EstimateResponse> listener) {
+        List<String> fields = new ArrayList<>();
+        List<String> matcherNames = new ArrayList<>();
+        double[] thresholds = new double[request.matchers().size()];
+        for (Map<String, Object> matcher : request.matchers()) {
+            thresholds[fields.size()] = Double.parseDouble(String.valueOf(matcher.get("threshold")));
+            fields.add(String.valueOf(matcher.get("field")));
+            matcherNames.add(String.valueOf(matcher.get("matcher")));
+        }
+        FellegiSunterEstimator estimator;
+        try {
+            estimator = new FellegiSunterEstimator(matcherNames, thresholds,
+                    threadPool.executor(RecordLinkagePlugin.THREAD_POOL_NAME),
+                    threadPool.info(RecordLinkagePlugin.THREAD_POOL_NAME).getMax());
+        } catch (IllegalArgumentException e) {
+            listener.onFailure(e);
+            return;
+        }
+
+        List<String> sourceFields = new ArrayList<>(fields);
+        if (request.blockField() != null) {
+            sourceFields.add(request.blockField());
+        }
+        QueryBuilder query = request.query() == null ? QueryBuilders.matchAllQuery() : request.query();
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .query(QueryBuilders.functionScoreQuery(query, ScoreFunctionBuilders.randomFunction()))
+            .size(request.sampleSize())
+            .fetchSource(sourceFields.toArray(new String[0]), null);
+        SearchRequest searchRequest = new SearchRequest(request.indices()).source(source);
+
+        client.search(searchRequest, ActionListener.wrap(
+            searchResponse -> {
+                if (request.blockField() == null) {
+                    estimate(request, fields, matcherNames, thresholds, estimator,
+                            Collections.singletonList(searchResponse.getHits().getHits()), listener);
+                } else {
+                    fetchBlocks(request, query, sourceFields, searchResponse.getHits().getHits(), ActionListener.wrap(
+                        blocks -> estimate(request, fields, matcherNames, thresholds, estimator, blocks, listener),
+                        listener::onFailure));
+                }
+            },
+            listener::onFailure
+        ));
+    }
+
+    /*
+     * The two records of a duplicate almost never both turn up in a random sample of a large index, so the sample
+     * is only used to pick the blocks. Each block of a sampled record is then fetched in full, up to the block_size,
+     * so the duplicates within the block are compared.
+     */
+    private void fetchBlocks(EstimateRequest request, QueryBuilder query, List<String> sourceFields, SearchHit[] seeds,
+            ActionListener<List<SearchHit[]>> listener) {
+        Set<Object> blockValues = new LinkedHashSet<>();
+        for (SearchHit seed : seeds) {
+            Object block = blockValue(XContentMapValues.extractValue(request.blockField(), seed.getSourceAsMap()));
+            if (block != null) {
+                blockValues.add(block);
+            }
+        }
+        if (blockValues.isEmpty()) {
+            listener.onResponse(Collections.emptyList());
+            return;
+        }
+        MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        for (Object block : blockValues) {
+            SearchSourceBuilder source = new SearchSourceBuilder()
+                .query(QueryBuilders.boolQuery().filter(query).filter(QueryBuilders.termQuery(request.blockField(), block)))
+                .size(request.blockSize())
+                .fetchSource(sourceFields.toArray(new String[0]), null);
+            multiSearchRequest.add(new SearchRequest(request.indices()).source(source));
+        }
+        client.multiSearch(multiSearchRequest, ActionListener.wrap(
+            multiSearchResponse -> {
+                List<SearchHit[]> blocks = new ArrayList<>();
+                for (MultiSearchResponse.Item item : multiSearchResponse.getResponses()) {
+                    if (item.isFailure()) {
+                        listener.onFailure(item.getFailure());
+                        return;
+                    }
+                    blocks.add(item.getResponse().getHits().getHits());
+                }
+                listener.onResponse(blocks);
+            },
+            listener::onFailure
+        ));
+    }
+
+    private void estimate(EstimateRequest request, List<String> fields, List<String> matcherNames, double[] thresholds,
+            FellegiSunterEstimator estimator, List<SearchHit[]> blocks, ActionListener<EstimateResponse> listener) {
+        threadPool.generic().execute(() -> {
+            try {
+                listener.onResponse(estimate(request, fields, matcherNames, thresholds, estimator, blocks));
+            } catch (Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /*
+     * Every pair of records within each block is compared. Without a block_field the whole sample is one block. The
+     * blocks left once max_pairs is reached are never parsed, so their source maps are not loaded.
+     */
+    private EstimateResponse estimate(EstimateRequest request, List<String> fields, List<String> matcherNames,
+            double[] thresholds, FellegiSunterEstimator estimator, List<SearchHit[]> blocks) {
+        List<String[]> records = new ArrayList<>();
+        List<int[]> pairs = new ArrayList<>();
+        for (SearchHit[] block : blocks) {
+            if (pairs.size() >= request.maxPairs()) {
+                break;
+            }
+            int first = records.size();
+            for (SearchHit hit : block) {
+                Map<String, Object> sourceMap = hit.getSourceAsMap();
+                String[] record = new String[fields.size()];
+                for (int i = 0; i < fields.size(); i++) {
+                    record[i] = valueOf(XContentMapValues.extractValue(fields.get(i), sourceMap));
+                }
+                records.add(record);
+            }
+            for (int left = first; left < records.size() && pairs.size() < request.maxPairs(); left++) {
+                for (int right = left + 1; right < records.size() && pairs.size() < request.maxPairs(); right++) {
+                    pairs.add(new int[] { left, right });
+                }
+            }
+        }
+
+        FellegiSunterEstimator.PatternTable table = estimator.patterns(records.toArray(new String[0][]),
+                pairs.toArray(new int[0][]));
+        FellegiSunterEstimator.Estimate estimate = estimator.estimate(table, request.initialM(), request.initialU(),
+                request.proportion(), request.maxIterations(), request.tolerance());
+        return new EstimateResponse(fields.toArray(new String[0]), matcherNames.toArray(new String[0]), thresholds,
+                estimate.m, estimate.u, estimate.proportion, estimate.iterations, estimate.converged, table.total(),
+                table.size());
+    }
+
+    /*
+     * The value to block on, the first one if the field has more than one.
+     */
+    private static Object blockValue(Object value) {
+        if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            return values.isEmpty() ? null : values.get(0);
+        }
+        return value;
+    }
+
+    private static String valueOf(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return String.valueOf(value);
+    }
+
+}
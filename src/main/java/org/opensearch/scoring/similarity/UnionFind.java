@@ -0,0 +1,105 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A union-find over record ordinals with path compression and union by rank, kept in a {@link MappedFile} so the
+ * number of records is not limited by the heap. Each record takes a single long: the rank in the top byte and the
+ * ordinal of the parent in the rest.
+ */
+final class UnionFind implements Closeable {
+
+    private static final int RANK_SHIFT = 56;
+    private static final long PARENT_MASK = (1L << RANK_SHIFT) - 1;
+
+    private final MappedFile nodes;
+    private final long size;
+
+    /**
+     * Create a union-find where every record starts in a cluster of its own.
+     */
+    UnionFind(Path path, long size) throws IOException {
+        if (size > PARENT_MASK) {
+            throw new IllegalArgumentException("Too many records to cluster: " + size);
+        }
+        this.nodes = MappedFile.create(path, size * Long.BYTES);
+        this.size = size;
+        for (long ordinal = 0; ordinal < size; ordinal++) {
+            nodes.putLong(ordinal * Long.BYTES, ordinal);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return the ordinal of the root of the cluster of the record.
+     */
+    long find(long ordinal) {
+        long root = ordinal;
+        long parent;
+        while ((parent = parent(root)) != root) {
+            root = parent;
+        }
+        // Path compression: point every record on the path straight at the root, keeping its rank.
+        while (ordinal != root) {
+            long node = nodes.getLong(ordinal * Long.BYTES);
+            nodes.putLong(ordinal * Long.BYTES, (node & ~PARENT_MASK) | root);
+            ordinal = node & PARENT_MASK;
+        }
+        return root;
+    }
+
+    /**
+     * Merge the clusters of the two records, attaching the root with the lower rank to the other.
+     *
+     * @return true if the records were in different clusters.
+     */
+    boolean union(long left, long right) {
+        long leftRoot = find(left);
+        long rightRoot = find(right);
+        if (leftRoot == rightRoot) {
+            return false;
+        }
+        long leftRank = rank(leftRoot);
+        long rightRank = rank(rightRoot);
+        if (leftRank < rightRank) {
+            setParent(leftRoot, rightRoot);
+        } else if (leftRank > rightRank) {
+            setParent(rightRoot, leftRoot);
+        } else {
+            setParent(rightRoot, leftRoot);
+            nodes.putLong(leftRoot * Long.BYTES, ((leftRank + 1) << RANK_SHIFT) | leftRoot);
+        }
+        return true;
+    }
+
+    private long parent(long ordinal) {
+        return nodes.getLong(ordinal * Long.BYTES) & PARENT_MASK;
+    }
+
+    private long rank(long ordinal) {
+        return nodes.getLong(ordinal * Long.BYTES) >>> RANK_SHIFT;
+    }
+
+    private void setParent(long ordinal, long parent) {
+        long node = nodes.getLong(ordinal * Long.BYTES);
+        nodes.putLong(ordinal * Long.BYTES, (node & ~PARENT_MASK) | parent);
+    }
+
+    @Override
+    public void close() throws IOException {
+        nodes.close();
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.common.settings.Settings;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.tasks.TaskManager;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.TestThreadPool;
+import org.opensearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class ClusteringTests extends OpenSearchTestCase {
+
+    public void testUnionFind() throws IOException {
+        try (UnionFind unionFind = new UnionFind(createTempDir().resolve("clusters"), 6)) {
+            assertTrue(unionFind.union(0, 1));
+            assertTrue(unionFind.union(2, 3));
+            assertTrue(unionFind.union(1, 3));
+            assertFalse(unionFind.union(0, 2));
+            long root = unionFind.find(0);
+            for (long ordinal = 1; ordinal < 4; ordinal++) {
+                assertEquals(root, unionFind.find(ordinal));
+            }
+            assertEquals(4, unionFind.find(4));
+            assertEquals(5, unionFind.find(5));
+        }
+    }
+
+    public void testIdOrdinals() throws IOException {
+        Path directory = createTempDir();
+        int size = randomIntBetween(1, 1000);
+        String[] ids = new String[size];
+        IdOrdinals idOrdinals;
+        try (IdOrdinals.Builder builder = new IdOrdinals.Builder(directory, size)) {
+            for (int i = 0; i < size; i++) {
+                ids[i] = i + "-" + randomUnicodeOfLengthBetween(0, 10);
+                assertEquals(i, builder.add(ids[i]));
+            }
+            idOrdinals = builder.build();
+        }
+        try {
+            assertEquals(size, idOrdinals.size());
+            for (int i = 0; i < size; i++) {
+                assertEquals(i, idOrdinals.ordinal(ids[i]));
+                assertEquals(ids[i], idOrdinals.id(i));
+            }
+            assertEquals(-1, idOrdinals.ordinal("missing"));
+        } finally {
+            idOrdinals.close();
+        }
+    }
+
+    public void testCancelledTask() {
+        ThreadPool threadPool = new TestThreadPool(getTestName());
+        try {
+            TaskManager taskManager = new TaskManager(Settings.EMPTY, threadPool, Collections.emptySet());
+            ClusterTask task = (ClusterTask) taskManager.register("transport", ClusterAction.NAME,
+                    new ClusterRequest("patients").pairsIndex("pairs"));
+            task.phase("pairs");
+            task.records(5);
+            task.pairs(2);
+            assertEquals(new ClusterTask.Status("pairs", 5, 2, 0), task.getStatus());
+            task.ensureNotCancelled();
+
+            taskManager.cancel(task, "test", () -> {});
+            TaskCancelledException e = expectThrows(TaskCancelledException.class, task::ensureNotCancelled);
+            assertTrue(e.getMessage().contains("test"));
+            taskManager.unregister(task);
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+}
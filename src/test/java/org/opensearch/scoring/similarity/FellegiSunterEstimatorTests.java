@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class FellegiSunterEstimatorTests extends OpenSearchTestCase {
+
+    private static final int FIELDS = 3;
+
+    public void testEstimateSeparatesMatchesFromUnmatches() throws InterruptedException {
+        int matches = 500;
+        int unmatches = 5000;
+        String[][] records = new String[2 * (matches + unmatches)][];
+        int[][] pairs = new int[matches + unmatches][];
+        for (int pair = 0; pair < pairs.length; pair++) {
+            boolean match = pair < matches;
+            String[] left = new String[FIELDS];
+            String[] right = new String[FIELDS];
+            for (int i = 0; i < FIELDS; i++) {
+                left[i] = randomAlphaOfLength(8);
+                // Matches agree on most fields and unmatches only agree by chance.
+                boolean agree = match ? randomDouble() < 0.9 : randomDouble() < 0.05;
+                right[i] = agree ? left[i] : randomAlphaOfLength(8);
+            }
+            records[2 * pair] = left;
+            records[2 * pair + 1] = right;
+            pairs[pair] = new int[] { 2 * pair, 2 * pair + 1 };
+        }
+
+        List<String> matcherNames = Arrays.asList("levenshtein", "levenshtein", "levenshtein");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        FellegiSunterEstimator.PatternTable table;
+        FellegiSunterEstimator.Estimate estimate;
+        try {
+            FellegiSunterEstimator estimator = new FellegiSunterEstimator(matcherNames, new double[] { 0, 0, 0 }, executor, 2);
+            table = estimator.patterns(records, pairs);
+            estimate = estimator.estimate(table, 0.9, 0.1, 0.1, 200, 0.00001);
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(pairs.length, table.total());
+        assertTrue(table.size() <= 1 << FIELDS);
+        assertTrue(estimate.converged);
+        for (int i = 0; i < FIELDS; i++) {
+            assertEquals(0.9, estimate.m[i], 0.1);
+            assertEquals(0.05, estimate.u[i], 0.05);
+        }
+        assertEquals((double) matches / pairs.length, estimate.proportion, 0.05);
+    }
+
+    public void testMissingValuesAreNotDisagreements() throws InterruptedException {
+        int matches = 500;
+        int unmatches = 5000;
+        String[][] records = new String[2 * (matches + unmatches)][];
+        int[][] pairs = new int[matches + unmatches][];
+        for (int pair = 0; pair < pairs.length; pair++) {
+            boolean match = pair < matches;
+            String[] left = new String[FIELDS];
+            String[] right = new String[FIELDS];
+            for (int i = 0; i < FIELDS; i++) {
+                left[i] = randomAlphaOfLength(8);
+                boolean agree = match ? randomDouble() < 0.9 : randomDouble() < 0.05;
+                right[i] = agree ? left[i] : randomAlphaOfLength(8);
+            }
+            // The last field is sparse, most of the records have no value for it.
+            if (randomDouble() < 0.7) {
+                right[FIELDS - 1] = "";
+            }
+            records[2 * pair] = left;
+            records[2 * pair + 1] = right;
+            pairs[pair] = new int[] { 2 * pair, 2 * pair + 1 };
+        }
+
+        List<String> matcherNames = Arrays.asList("levenshtein", "levenshtein", "levenshtein");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        FellegiSunterEstimator.Estimate estimate;
+        try {
+            FellegiSunterEstimator estimator = new FellegiSunterEstimator(matcherNames, new double[] { 0, 0, 0 }, executor, 2);
+            estimate = estimator.estimate(estimator.patterns(records, pairs), 0.9, 0.1, 0.1, 200, 0.00001);
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        assertEquals(0.9, estimate.m[FIELDS - 1], 0.1);
+        assertEquals(0.05, estimate.u[FIELDS - 1], 0.05);
+    }
+
+    public void testTypedMatchersAreRejected() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> new FellegiSunterEstimator(
+                Arrays.asList("date-within-days"), new double[] { 1 }, null, 1));
+        assertTrue(e.getMessage().contains("date-within-days"));
+    }
+
+}
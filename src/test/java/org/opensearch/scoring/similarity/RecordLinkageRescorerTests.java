@@ -0,0 +1,189 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.script.ScoreScript;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ExecutorBuilder;
+import org.opensearch.threadpool.TestThreadPool;
+import org.opensearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RecordLinkageRescorerTests extends OpenSearchTestCase {
+
+    public void testSlicesGiveTheSameRankingAsOneSlice() throws IOException {
+        int numDocs = 1200;
+        ExecutorBuilder<?>[] executorBuilders = new RecordLinkagePlugin(Settings.EMPTY).getExecutorBuilders(Settings.EMPTY)
+                .toArray(new ExecutorBuilder<?>[0]);
+        ThreadPool threadPool = new TestThreadPool(getTestName(), executorBuilders);
+        try (Directory directory = newDirectory(); RandomIndexWriter writer = new RandomIndexWriter(random(), directory)) {
+            for (int i = 0; i < numDocs; i++) {
+                writer.addDocument(new Document());
+                if (rarely()) {
+                    writer.commit();
+                }
+            }
+            try (IndexReader reader = writer.getReader()) {
+                IndexSearcher searcher = newSearcher(reader);
+                float[] queryScores = new float[numDocs];
+                for (int i = 0; i < numDocs; i++) {
+                    queryScores[i] = randomFloat();
+                }
+                Set<String> threads = ConcurrentHashMap.newKeySet();
+                TopDocs sequential = RecordLinkageRescorer.INSTANCE.rescore(topDocs(queryScores), searcher,
+                        new RecordLinkageRescorer.Context(numDocs, new DocIdLeafFactory(threads), "sum", "total", 1, threadPool));
+                threads.clear();
+                TopDocs sliced = RecordLinkageRescorer.INSTANCE.rescore(topDocs(queryScores), searcher,
+                        new RecordLinkageRescorer.Context(numDocs, new DocIdLeafFactory(threads), "sum", "total", 4, threadPool));
+
+                assertTrue("the slices should run on the record_linkage pool: " + threads,
+                        threads.stream().anyMatch(name -> name.contains(RecordLinkagePlugin.THREAD_POOL_NAME)));
+                assertEquals(sequential.scoreDocs.length, sliced.scoreDocs.length);
+                for (int i = 0; i < sequential.scoreDocs.length; i++) {
+                    assertEquals(sequential.scoreDocs[i].doc, sliced.scoreDocs[i].doc);
+                    assertEquals(sequential.scoreDocs[i].score, sliced.scoreDocs[i].score, 0.0f);
+                }
+            }
+        } finally {
+            terminate(threadPool);
+        }
+    }
+
+    public void testBayesCombineKeepsTheQueryScoreWhenNotScored() throws IOException {
+        try (Directory directory = newDirectory(); RandomIndexWriter writer = new RandomIndexWriter(random(), directory)) {
+            for (int i = 0; i < 10; i++) {
+                writer.addDocument(new Document());
+            }
+            try (IndexReader reader = writer.getReader()) {
+                float[] queryScores = new float[10];
+                for (int i = 0; i < queryScores.length; i++) {
+                    queryScores[i] = randomFloat();
+                }
+                ScoreScript.LeafFactory notScored = new ConstantLeafFactory(RecordLinkagePlugin.SimilarityLeafFactory.NOT_SCORED);
+                TopDocs topDocs = RecordLinkageRescorer.INSTANCE.rescore(topDocs(queryScores), newSearcher(reader),
+                        new RecordLinkageRescorer.Context(10, notScored, "bayes", "bayes", 1, null));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    assertEquals(queryScores[scoreDoc.doc], scoreDoc.score, 0.0f);
+                }
+
+                // The query side of a bayes query that scored nothing keeps the score of the rescorer.
+                float[] notScoredQuery = new float[10];
+                Arrays.fill(notScoredQuery, (float) RecordLinkagePlugin.SimilarityLeafFactory.NOT_SCORED);
+                topDocs = RecordLinkageRescorer.INSTANCE.rescore(topDocs(notScoredQuery), newSearcher(reader),
+                        new RecordLinkageRescorer.Context(10, new ConstantLeafFactory(0.2), "bayes", "bayes", 1, null));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    assertEquals(0.2f, scoreDoc.score, 0.0f);
+                }
+
+                // Neither side scored the document.
+                topDocs = RecordLinkageRescorer.INSTANCE.rescore(topDocs(notScoredQuery), newSearcher(reader),
+                        new RecordLinkageRescorer.Context(10, notScored, "bayes", "bayes", 1, null));
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    assertEquals((float) RecordLinkagePlugin.SimilarityLeafFactory.NOT_SCORED, scoreDoc.score, 0.0f);
+                }
+            }
+        }
+    }
+
+    public void testBayesCombineOfACertainMatchAndNonMatch() {
+        assertEquals(0.5, RecordLinkageRescorer.combine("bayes", 1.0, 0.0), 0.0);
+        assertEquals(0.5, RecordLinkageRescorer.combine("bayes", 0.0, 1.0), 0.0);
+        assertEquals(0.9, RecordLinkageRescorer.combine("bayes", 0.9, 0.5), 0.000001);
+    }
+
+    /*
+     * The documents come from the query in reverse doc id order so the rescorer has to sort them by doc id itself.
+     */
+    private static TopDocs topDocs(float[] queryScores) {
+        ScoreDoc[] scoreDocs = new ScoreDoc[queryScores.length];
+        for (int i = 0; i < queryScores.length; i++) {
+            scoreDocs[i] = new ScoreDoc(queryScores.length - 1 - i, queryScores[queryScores.length - 1 - i]);
+        }
+        return new TopDocs(new TotalHits(queryScores.length, TotalHits.Relation.EQUAL_TO), scoreDocs);
+    }
+
+    private static class ConstantLeafFactory implements ScoreScript.LeafFactory {
+
+        private final double score;
+
+        ConstantLeafFactory(double score) {
+            this.score = score;
+        }
+
+        @Override
+        public boolean needs_score() {
+            return false;
+        }
+
+        @Override
+        public ScoreScript newInstance(LeafReaderContext ctx) {
+            return new ScoreScript(null, null, null) {
+                @Override
+                public void setDocument(int docid) {
+                }
+
+                @Override
+                public double execute(ExplanationHolder explanation) {
+                    return score;
+                }
+            };
+        }
+
+    }
+
+    /*
+     * Scores each document from its doc id and records the threads the scripts were created on.
+     */
+    private static class DocIdLeafFactory implements ScoreScript.LeafFactory {
+
+        private final Set<String> threads;
+
+        DocIdLeafFactory(Set<String> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public boolean needs_score() {
+            return false;
+        }
+
+        @Override
+        public ScoreScript newInstance(LeafReaderContext ctx) {
+            threads.add(Thread.currentThread().getName());
+            return new ScoreScript(null, null, null) {
+                private int docId;
+
+                @Override
+                public void setDocument(int docid) {
+                    this.docId = docid;
+                }
+
+                @Override
+                public double execute(ExplanationHolder explanation) {
+                    return ((ctx.docBase + docId) * 7919 % 1000) / 1000.0;
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.scoring.similarity;
+
+import org.opensearch.test.OpenSearchTestCase;
+
+public class TokenSetMatcherTests extends OpenSearchTestCase {
+
+    private final MatcherService matcherService = new MatcherService();
+
+    public void testTokenOrderDoesNotMatter() {
+        for (String matcherName : new String[] { "monge-elkan", "token-sort-ratio", "token-set-ratio" }) {
+            assertEquals(matcherName, 1.0, matcherService.matchScore(matcherName, "ABC Street", "Street ABC"), 0.0);
+            assertEquals(matcherName, 1.0, matcherService.matchScore(matcherName, "ABC Street", "[street,  abc]"), 0.0);
+        }
+    }
+
+    public void testTokenSetRatioIgnoresExtraTokens() {
+        assertEquals(1.0, matcherService.matchScore("token-set-ratio", "ABC Street", "ABC Street North"), 0.0);
+        assertTrue(matcherService.matchScore("token-sort-ratio", "ABC Street", "ABC Street North") < 1.0);
+    }
+
+    public void testNoTokensDoesNotMatch() {
+        for (String matcherName : new String[] { "monge-elkan", "token-sort-ratio", "token-set-ratio" }) {
+            assertEquals(matcherName, 0.0, matcherService.matchScore(matcherName, "ABC Street", " - "), 0.0);
+        }
+    }
+
+    public void testReusedBufferGivesTheSameScores() {
+        MatcherService.TokenProbe probe = MatcherService.tokenProbe("John Doe");
+        MatcherService.TokenBuffer buffer = new MatcherService.TokenBuffer();
+        String[] values = { "Doe John", "Jon Doe", "Doe, Jane", "John Alexander Doe", "Smith" };
+        for (int round = 0; round < 2; round++) {
+            for (String value : values) {
+                for (String matcherName : new String[] { "monge-elkan", "token-sort-ratio", "token-set-ratio" }) {
+                    double expected = matcherService.matchScore(matcherName, "John Doe", value);
+                    double score = matcherService.matchScore(matcherName, MatcherService.DEFAULT_INNER_MATCHER, probe, value,
+                            buffer);
+                    assertEquals(matcherName + " " + value, expected, score, 0.0);
+                }
+            }
+        }
+    }
+
+    public void testMongeElkanStopsOnceTheThresholdsAreDecided() {
+        MatcherService.TokenProbe probe = MatcherService.tokenProbe("aaa bbb ccc ddd");
+        MatcherService.TokenBuffer buffer = new MatcherService.TokenBuffer();
+        String inner = MatcherService.DEFAULT_INNER_MATCHER;
+        // After the first token the average can be at most 3 / 4, which is already below the threshold.
+        assertEquals(0.75, matcherService.matchScore("monge-elkan", inner, probe, "zzz", buffer, 0.8, 0.8), 0.0);
+        // After two perfect tokens the average is at least 2 / 4, which already meets the threshold.
+        assertEquals(0.5, matcherService.matchScore("monge-elkan", inner, probe, "bbb aaa", buffer, 0.5, 0.5), 0.0);
+        // Between the loosest and the strictest threshold the full average is needed.
+        assertEquals(0.5, matcherService.matchScore("monge-elkan", inner, probe, "bbb aaa", buffer, 0.4, 0.9), 0.0);
+
+        String[] values = { "aaa bbb ccc ddd", "ddd ccc", "aab bbb ccd", "zzz", "aaa" };
+        double[] thresholds = { 0.3, 0.5, 0.7, 0.9 };
+        for (String value : values) {
+            double full = matcherService.matchScore("monge-elkan", inner, probe, value, buffer);
+            for (double loosest : thresholds) {
+                for (double strictest : thresholds) {
+                    if (strictest < loosest) {
+                        continue;
+                    }
+                    double score = matcherService.matchScore("monge-elkan", inner, probe, value, buffer, loosest, strictest);
+                    assertEquals(value, full < loosest, score < loosest);
+                    assertEquals(value, full >= strictest, score >= strictest);
+                }
+            }
+        }
+    }
+
+    public void testInnerMatcherMustBeASimilarity() {
+        MatcherService.checkInnerMatcher("normalized-levenshtein-similarity");
+        expectThrows(IllegalArgumentException.class, () -> MatcherService.checkInnerMatcher("levenshtein"));
+        expectThrows(IllegalArgumentException.class, () -> MatcherService.checkInnerMatcher("monge-elkan"));
+    }
+
+}